@@ -5,63 +5,104 @@ import dev.doom.customauth.api.CustomAuthAPI;
 import dev.doom.customauth.bedrock.BedrockAuthHandler;
 import dev.doom.customauth.config.ConfigManager;
 import dev.doom.customauth.config.LanguageManager;
+import dev.doom.customauth.events.CommandAllowList;
+import dev.doom.customauth.events.MovementFreezer;
+import dev.doom.customauth.events.PlayerProtectionHandler;
+import dev.doom.customauth.events.ProtectionGate;
+import dev.doom.customauth.events.VisibilityManager;
 import dev.doom.customauth.models.PlayerData;
+import dev.doom.customauth.scheduler.BoundedExecutor;
+import dev.doom.customauth.scheduler.TaskScheduler;
+import dev.doom.customauth.security.HashCalibrator;
+import dev.doom.customauth.security.HashingService;
+import dev.doom.customauth.security.PreLoginGuard;
+import dev.doom.customauth.session.AuthStateRegistry;
+import dev.doom.customauth.session.AuthTimeoutWheel;
+import dev.doom.customauth.session.LoginPrefetcher;
 import dev.doom.customauth.session.SessionManager;
+import dev.doom.customauth.storage.AccountLookupService;
+import dev.doom.customauth.storage.AuthStorage;
+import dev.doom.customauth.storage.CachingAuthStorage;
+import dev.doom.customauth.storage.CoalescingAuthStorage;
 import dev.doom.customauth.storage.Database;
+import dev.doom.customauth.storage.FileAuthStorage;
 import dev.doom.customauth.storage.FileStorage;
+import dev.doom.customauth.storage.PlayerDataCache;
+import dev.doom.customauth.storage.RegisteredNameFilter;
+import dev.doom.customauth.storage.RetryingAuthStorage;
+import dev.doom.customauth.storage.SqlAuthStorage;
+import dev.doom.customauth.storage.SqlDialect;
+import dev.doom.customauth.storage.TimedAuthStorage;
 import dev.doom.customauth.utils.EmailSender;
 import dev.doom.customauth.utils.SecurityUtils;
 import org.bukkit.plugin.java.JavaPlugin;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import java.util.concurrent.*;
 import java.time.Duration;
 
 public class CustomAuth extends JavaPlugin {
     private boolean isFolia;
+    private TaskScheduler taskScheduler;
     private ConfigManager configManager;
     private LanguageManager languageManager;
     private Database database;
     private FileStorage fileStorage;
+    private AuthStorage storage;
+    private TimedAuthStorage storageTimings;
+    private AccountLookupService accountLookupService;
+    private RegisteredNameFilter registeredNameFilter;
     private SessionManager sessionManager;
+    private AuthStateRegistry authStateRegistry;
+    private ProtectionGate protectionGate;
+    private MovementFreezer movementFreezer;
+    private CommandAllowList commandAllowList;
+    private VisibilityManager visibilityManager;
+    private LoginPrefetcher loginPrefetcher;
+    private PreLoginGuard preLoginGuard;
+    private AuthTimeoutWheel authTimeoutWheel;
     private BedrockAuthHandler bedrockAuthHandler;
     private EmailSender emailSender;
     private SecurityUtils securityUtils;
+    private HashingService hashingService;
+    private HashCalibrator hashCalibrator;
     
-    private final Cache<String, PlayerData> playerCache;
-    private final ExecutorService asyncExecutor;
+    private PlayerDataCache playerCache;
+    private ExecutorService asyncExecutor;
+    private ExecutorService databasePool;
+    private BoundedExecutor databaseExecutor;
+    private BoundedExecutor mailExecutor;
     
-    public CustomAuth() {
-        this.playerCache = Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterAccess(30, TimeUnit.MINUTES)
-            .build();
-            
-        this.asyncExecutor = Executors.newFixedThreadPool(
-            Runtime.getRuntime().availableProcessors()
-        );
-    }
-
     @Override
     public void onEnable() {
         // Check for Folia
         this.isFolia = checkFolia();
+        this.taskScheduler = new TaskScheduler(this);
 
         // Initialize configurations
         this.configManager = new ConfigManager(this);
         this.languageManager = new LanguageManager(this);
+        createExecutors();
         this.securityUtils = new SecurityUtils(this);
+        this.hashingService = new HashingService(this);
+        this.hashCalibrator = new HashCalibrator(this);
 
         // Initialize storage
-        if (getConfig().getBoolean("storage.mysql.enabled")) {
-            this.database = new Database(this);
+        SqlDialect dialect = SqlDialect.forType(configManager.getStorageType());
+        if (dialect != null) {
+            this.database = new Database(this, dialect);
             database.initialize();
         } else {
             this.fileStorage = new FileStorage(this);
         }
 
+        this.playerCache = new PlayerDataCache(this);
+        createStorage();
+        this.accountLookupService = new AccountLookupService(this);
+        this.registeredNameFilter = new RegisteredNameFilter(this);
+        registeredNameFilter.rebuild();
+
         // Initialize session manager
         this.sessionManager = new SessionManager(this);
+        this.authStateRegistry = new AuthStateRegistry(this);
 
         // Initialize email sender if enabled
         if (getConfig().getBoolean("email.enabled")) {
@@ -82,6 +123,14 @@ public class CustomAuth extends JavaPlugin {
         // Start cleanup tasks
         startCleanupTasks();
 
+        // Tune the hash cost to this machine
+        if (getConfig().getBoolean("security.hashing.calibration.on_startup")) {
+            hashCalibrator.calibrate().exceptionally(error -> {
+                getLogger().warning("Hash cost calibration failed: " + error.getMessage());
+                return null;
+            });
+        }
+
         // Setup API
         CustomAuthAPI.setPlugin(this);
 
@@ -89,8 +138,25 @@ public class CustomAuth extends JavaPlugin {
     }
 
     private void registerEvents() {
+        // Cheap IP checks first, the prefetch only loads connections that were let through
+        this.preLoginGuard = new PreLoginGuard(this);
+        getServer().getPluginManager().registerEvents(preLoginGuard, this);
+        this.loginPrefetcher = new LoginPrefetcher(this);
+        getServer().getPluginManager().registerEvents(loginPrefetcher, this);
         getServer().getPluginManager().registerEvents(new AuthListener(this), this);
-        getServer().getPluginManager().registerEvents(new PlayerProtectionHandler(this), this);
+
+        // Protection handlers are only registered while someone has to log in
+        this.commandAllowList = new CommandAllowList(this);
+        this.protectionGate = new ProtectionGate(this, new PlayerProtectionHandler(this));
+        this.movementFreezer = new MovementFreezer(this);
+        authStateRegistry.addListener(protectionGate);
+        authStateRegistry.addListener(movementFreezer);
+
+        this.visibilityManager = new VisibilityManager(this);
+        authStateRegistry.addListener(visibilityManager);
+
+        this.authTimeoutWheel = new AuthTimeoutWheel(this);
+        authStateRegistry.addListener(authTimeoutWheel);
     }
 
     private void registerCommands() {
@@ -101,6 +167,14 @@ public class CustomAuth extends JavaPlugin {
         getCommand("authadmin").setExecutor(new AdminCommand(this));
     }
 
+    private void createStorage() {
+        AuthStorage backend = database != null ? new SqlAuthStorage(this, database) : new FileAuthStorage(this, fileStorage);
+        // Timings wrap the bare backend, so they measure the backend and not the cache
+        this.storageTimings = new TimedAuthStorage(backend);
+        this.storage = new CachingAuthStorage(this,
+            new CoalescingAuthStorage(new RetryingAuthStorage(this, storageTimings)));
+    }
+
     private boolean checkFolia() {
         try {
             Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
@@ -110,13 +184,39 @@ public class CustomAuth extends JavaPlugin {
         }
     }
 
-    public void scheduleTask(Runnable task, long delay, long period) {
-        if (isFolia) {
-            getServer().getGlobalRegionScheduler().runAtFixedRate(this, 
-                scheduledTask -> task.run(), delay, period);
+    private void createExecutors() {
+        // Mail and file I/O get a virtual thread per task, CPU-bound hashing keeps its own platform pool
+        if (getConfig().getString("performance.executor", "virtual").equalsIgnoreCase("platform")) {
+            int threads = getConfig().getInt("performance.async_threads", 0);
+            this.asyncExecutor = Executors.newFixedThreadPool(
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
         } else {
-            getServer().getScheduler().runTaskTimerAsynchronously(this, task, delay, period);
+            this.asyncExecutor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("CustomAuth-IO-", 0).factory());
         }
+
+        // Never run more queries than there are pooled connections, or more sends than SMTP allows
+        int mysqlPool = getConfig().getInt("storage.mysql.pool-size", 10);
+        // Reads spread over the replicas, so allow as many queries as all pools have connections
+        int replicaPools = getConfig().getStringList("storage.mysql.replicas").size()
+            * getConfig().getInt("storage.mysql.replica-pool-size", mysqlPool);
+        int queries = Math.max(1, switch (configManager.getStorageType()) {
+            case "sqlite" -> getConfig().getInt("storage.sqlite.readers", 4);
+            case "postgresql", "postgres" -> getConfig().getInt("storage.postgresql.pool-size", 10);
+            default -> mysqlPool + replicaPools;
+        });
+        // JDBC drivers block inside synchronized code, which pins a virtual thread's carrier
+        // for the whole query. Queries get platform threads of their own, one per connection.
+        this.databasePool = Executors.newFixedThreadPool(queries,
+            Thread.ofPlatform().name("CustomAuth-DB-", 0).daemon().factory());
+        this.databaseExecutor = new BoundedExecutor(databasePool, queries);
+        this.mailExecutor = new BoundedExecutor(asyncExecutor,
+            getConfig().getInt("email.smtp.max_connections", 2));
+    }
+
+    public void scheduleTask(Runnable task, long delay, long period) {
+        // Periodic tasks do storage I/O, keep them off the tick threads
+        taskScheduler.runTimerAsync(task, delay, period);
     }
 
     private void startCleanupTasks() {
@@ -129,22 +229,45 @@ public class CustomAuth extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        // Speeds are saved with the player, never leave anyone frozen
+        if (movementFreezer != null) {
+            movementFreezer.releaseAll();
+        }
+        if (protectionGate != null) {
+            protectionGate.shutdown();
+        }
+
+        // Shutdown hashing pool
+        if (hashingService != null) {
+            hashingService.shutdown();
+        }
+
         // Shutdown async executor
-        asyncExecutor.shutdown();
-        try {
-            if (!asyncExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+            try {
+                if (!asyncExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    asyncExecutor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
                 asyncExecutor.shutdownNow();
             }
-        } catch (InterruptedException e) {
-            asyncExecutor.shutdownNow();
         }
-
-        // Save all data
-        if (fileStorage != null) {
-            fileStorage.saveAll();
+        if (databasePool != null) {
+            databasePool.shutdown();
+            try {
+                if (!databasePool.awaitTermination(5, TimeUnit.SECONDS)) {
+                    databasePool.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                databasePool.shutdownNow();
+            }
         }
-        if (database != null) {
-            database.close();
+
+        // Save all data, after in-flight async work has finished. Buffered
+        // login writes are flushed on this thread, not on the executor.
+        if (storage != null) {
+            storage.close();
         }
 
         getLogger().info("CustomAuth has been disabled!");
@@ -152,7 +275,24 @@ public class CustomAuth extends JavaPlugin {
 
     // Getters
     public boolean isFolia() { return isFolia; }
+    public TaskScheduler getTaskScheduler() { return taskScheduler; }
+    public BoundedExecutor getDatabaseExecutor() { return databaseExecutor; }
+    public BoundedExecutor getMailExecutor() { return mailExecutor; }
     public ConfigManager getConfigManager() { return configManager; }
     public LanguageManager getLanguageManager() { return languageManager; }
     public Database getDatabase() { return database; }
+    public AuthStorage getStorage() { return storage; }
+    public TimedAuthStorage getStorageTimings() { return storageTimings; }
+    public AccountLookupService getAccountLookupService() { return accountLookupService; }
+    public RegisteredNameFilter getRegisteredNameFilter() { return registeredNameFilter; }
+    public HashingService getHashingService() { return hashingService; }
+    public HashCalibrator getHashCalibrator() { return hashCalibrator; }
+    public AuthStateRegistry getAuthStateRegistry() { return authStateRegistry; }
+    public ProtectionGate getProtectionGate() { return protectionGate; }
+    public MovementFreezer getMovementFreezer() { return movementFreezer; }
+    public CommandAllowList getCommandAllowList() { return commandAllowList; }
+    public VisibilityManager getVisibilityManager() { return visibilityManager; }
+    public LoginPrefetcher getLoginPrefetcher() { return loginPrefetcher; }
+    public PreLoginGuard getPreLoginGuard() { return preLoginGuard; }
+    public AuthTimeoutWheel getAuthTimeoutWheel() { return authTimeoutWheel; }
     
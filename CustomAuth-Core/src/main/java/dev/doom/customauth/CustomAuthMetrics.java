@@ -21,7 +21,7 @@ public class CustomAuthMetrics {
 
     private void setupCharts() {
         metrics.addCustomChart(new SimplePie("database_type", 
-            () -> plugin.getConfig().getBoolean("mysql.enabled") ? "MySQL" : "SQLite"));
+            () -> plugin.getDatabase() != null ? plugin.getDatabase().getDialect().getName() : "File"));
             
         metrics.addCustomChart(new SimplePie("email_verification", 
             () -> plugin.getConfig().getBoolean("email.enabled") ? "Enabled" : "Disabled"));
@@ -34,15 +34,10 @@ public class CustomAuthMetrics {
     }
 
     private void startDailyReset() {
-        // Schedule daily reset using Folia's scheduler
-        plugin.getServer().getGlobalRegionScheduler().runAtFixedRate(plugin, 
-            task -> {
-                registrationsToday.set(0);
-                loginsToday.set(0);
-            }, 
-            1200L, // 1 minute delay
-            24000L // Run every 24 hours
-        );
+        plugin.scheduleTask(() -> {
+            registrationsToday.set(0);
+            loginsToday.set(0);
+        }, 20L * 60 * 60 * 24, 20L * 60 * 60 * 24); // Reset every 24 hours
     }
 
     public void incrementRegistrations() {
@@ -6,6 +6,7 @@ import javax.mail.internet.*;
 import java.util.Properties;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class EmailVerification {
     private final CustomAuth plugin;
@@ -34,7 +35,9 @@ public class EmailVerification {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 String token = generateVerificationToken();
-                saveVerificationToken(username, token);
+                if (!saveVerificationToken(username, token)) {
+                    return false;
+                }
 
                 Message message = new MimeMessage(emailSession);
                 message.setFrom(new InternetAddress(plugin.getConfig().getString("email.from")));
@@ -63,11 +66,18 @@ public class EmailVerification {
         return UUID.randomUUID().toString();
     }
 
-    private void saveVerificationToken(String username, String token) {
-        plugin.getDatabase().saveVerificationToken(username, token);
+    // Never mail a token that was not stored, its link could not work
+    private boolean saveVerificationToken(String username, String token) {
+        try {
+            plugin.getStorage().saveVerificationToken(username, token).join();
+            return true;
+        } catch (CompletionException e) {
+            plugin.getLogger().severe("Failed to store verification token: " + e.getCause().getMessage());
+            return false;
+        }
     }
 
     public CompletableFuture<Boolean> verifyToken(String token) {
-        return plugin.getDatabase().verifyEmailToken(token);
+        return plugin.getStorage().verifyEmailToken(token);
     }
 }
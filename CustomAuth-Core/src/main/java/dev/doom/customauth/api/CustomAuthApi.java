@@ -2,6 +2,7 @@
 package dev.doom.customauth.api;
 
 import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.AccountLookup;
 import dev.doom.customauth.models.PlayerData;
 import org.bukkit.entity.Player;
 import java.util.concurrent.CompletableFuture;
@@ -19,12 +20,8 @@ public class CustomAuthAPI {
      * @return CompletableFuture<Boolean> indicating registration status
      */
     public static CompletableFuture<Boolean> isRegistered(String username) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (plugin.getDatabase() != null) {
-                return plugin.getDatabase().isRegistered(username.toLowerCase());
-            }
-            return plugin.getFileStorage().isRegistered(username.toLowerCase());
-        }, plugin.getAsyncExecutor());
+        return plugin.getAccountLookupService().lookup(username)
+            .thenApply(lookup -> lookup.orNull() != null);
     }
 
     /**
@@ -33,8 +30,7 @@ public class CustomAuthAPI {
      * @return boolean indicating authentication status
      */
     public static boolean isAuthenticated(Player player) {
-        PlayerData data = plugin.getCachedPlayerData(player.getName().toLowerCase());
-        return data != null && data.isLoggedIn();
+        return plugin.getAuthStateRegistry().isAuthenticated(player);
     }
 
     /**
@@ -45,21 +41,15 @@ public class CustomAuthAPI {
     public static CompletableFuture<Boolean> forceLogin(Player player) {
         return CompletableFuture.supplyAsync(() -> {
             String username = player.getName().toLowerCase();
-            PlayerData data = plugin.getCachedPlayerData(username);
-            
-            if (data == null) {
-                data = plugin.getDatabase() != null ? 
-                    plugin.getDatabase().getPlayerData(username).join().orElse(null) :
-                    plugin.getFileStorage().loadPlayer(username);
-                
-                if (data == null) return false;
-            }
+            PlayerData data = plugin.getAccountLookupService().lookupNow(username).orNull();
+            if (data == null) return false;
 
-            data.setLoggedIn(true);
             data.setLastLogin(System.currentTimeMillis());
             data.setLastIp(player.getAddress().getAddress().getHostAddress());
-            plugin.cachePlayerData(username, data);
-            
+            if (!plugin.getAuthStateRegistry().authenticate(player, data)) {
+                return false;
+            }
+
             // Create session if enabled
             if (plugin.getConfig().getBoolean("session.enabled")) {
                 plugin.getSessionManager().createSession(player);
@@ -79,8 +69,7 @@ public class CustomAuthAPI {
         PlayerData data = plugin.getCachedPlayerData(username);
         
         if (data != null) {
-            data.setLoggedIn(false);
-            plugin.cachePlayerData(username, data);
+            plugin.getAuthStateRegistry().deauthenticate(player, data);
             plugin.getSessionManager().removeSession(username);
             return true;
         }
@@ -103,14 +92,7 @@ public class CustomAuthAPI {
      * @return CompletableFuture<PlayerData> containing player data
      */
     public static CompletableFuture<PlayerData> getPlayerData(String username) {
-        return CompletableFuture.supplyAsync(() -> {
-            PlayerData data = plugin.getCachedPlayerData(username.toLowerCase());
-            if (data != null) return data;
-
-            return plugin.getDatabase() != null ? 
-                plugin.getDatabase().getPlayerData(username.toLowerCase()).join().orElse(null) :
-                plugin.getFileStorage().loadPlayer(username.toLowerCase());
-        }, plugin.getAsyncExecutor());
+        return plugin.getAccountLookupService().lookup(username).thenApply(AccountLookup::orNull);
     }
 
     /**
@@ -124,20 +106,8 @@ public class CustomAuthAPI {
             return CompletableFuture.completedFuture(false);
         }
 
-        String hashedPassword = plugin.getSecurityUtils().hashPassword(newPassword);
-        return CompletableFuture.supplyAsync(() -> {
-            if (plugin.getDatabase() != null) {
-                return plugin.getDatabase().updatePassword(username.toLowerCase(), hashedPassword).join();
-            } else {
-                PlayerData data = plugin.getFileStorage().loadPlayer(username.toLowerCase());
-                if (data != null) {
-                    data.setHashedPassword(hashedPassword);
-                    plugin.getFileStorage().queueSave(data);
-                    return true;
-                }
-                return false;
-            }
-        }, plugin.getAsyncExecutor());
+        return plugin.getHashingService().hash(newPassword)
+            .thenCompose(hashedPassword -> plugin.getStorage().updatePassword(username, hashedPassword));
     }
 
     /**
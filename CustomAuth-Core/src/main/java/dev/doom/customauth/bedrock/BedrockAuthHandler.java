@@ -2,6 +2,8 @@
 package dev.doom.customauth.bedrock;
 
 import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.AccountLookup;
+import dev.doom.customauth.models.LoginSnapshot;
 import dev.doom.customauth.models.PlayerData;
 import org.geysermc.floodgate.api.FloodgateApi;
 import org.geysermc.floodgate.api.player.FloodgatePlayer;
@@ -39,16 +41,15 @@ public class BedrockAuthHandler implements Listener {
         Player player = event.getPlayer();
         if (!floodgateApi.isFloodgatePlayer(player.getUniqueId())) return;
 
-        // Use appropriate scheduler based on server type
-        if (plugin.isFolia()) {
-            player.getScheduler().run(plugin, task -> handleBedrockAuth(player), () -> {});
-        } else {
-            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, 
-                () -> handleBedrockAuth(player));
-        }
+        // Pending before the async auto-login can finish, whichever join listener runs first
+        plugin.getAuthStateRegistry().markPending(player);
+
+        // Account lookup and registration block on storage
+        LoginSnapshot snapshot = plugin.getLoginPrefetcher().take(player);
+        plugin.getTaskScheduler().runAsync(() -> handleBedrockAuth(player, snapshot));
     }
 
-    private void handleBedrockAuth(Player player) {
+    private void handleBedrockAuth(Player player, LoginSnapshot snapshot) {
         FloodgatePlayer floodgatePlayer = floodgateApi.getPlayer(player.getUniqueId());
         String username = player.getName().toLowerCase();
         String xuid = floodgatePlayer.getXuid();
@@ -64,11 +65,17 @@ public class BedrockAuthHandler implements Listener {
         );
 
         // Check for existing account
-        PlayerData existingData = plugin.getCachedPlayerData(username);
-        if (existingData == null) {
-            existingData = plugin.getDatabase() != null ?
-                plugin.getDatabase().getPlayerData(username).join().orElse(null) :
-                plugin.getFileStorage().loadPlayer(username);
+        PlayerData existingData;
+        if (snapshot != null) {
+            existingData = snapshot.playerData();
+        } else {
+            AccountLookup lookup = plugin.getAccountLookupService().lookupNow(username);
+            if (lookup.isError()) {
+                // Never auto-register over an account we could not read
+                player.sendMessage(plugin.getLanguageManager().getMessage("error.database_error"));
+                return;
+            }
+            existingData = lookup.playerData();
         }
 
         if (existingData == null) {
@@ -96,44 +103,35 @@ public class BedrockAuthHandler implements Listener {
         newData.setLastLogin(System.currentTimeMillis());
         newData.setLastIp(player.getAddress().getAddress().getHostAddress());
         newData.setVerified(true);
-        newData.setLoggedIn(true);
+        newData.setDeviceId(bedrockData.deviceId());
+        newData.setDeviceOs(bedrockData.deviceOs());
 
-        // Save to appropriate storage
-        if (plugin.getDatabase() != null) {
-            plugin.getDatabase().registerBedrockPlayer(
-                bedrockData.username(),
-                secureToken,
-                bedrockData.xuid(),
-                bedrockData.deviceId(),
-                bedrockData.deviceOs()
-            );
-        } else {
-            plugin.getFileStorage().queueSave(newData);
-        }
+        plugin.getStorage().registerAccount(newData);
 
-        plugin.cachePlayerData(bedrockData.username(), newData);
-        player.sendMessage(plugin.getLanguageManager().getMessage("bedrock.auto_register"));
+        plugin.getAccountLookupService().invalidate(bedrockData.username());
+        if (plugin.getAuthStateRegistry().authenticate(player, newData)) {
+            player.sendMessage(plugin.getLanguageManager().getMessage("bedrock.auto_register"));
+        }
     }
 
     private void handleExistingBedrockPlayer(Player player, PlayerData existingData, 
                                            BedrockPlayerData bedrockData) {
         if (existingData.getXuid().equals(bedrockData.xuid())) {
             // Valid Bedrock player - auto login
-            existingData.setLoggedIn(true);
             existingData.setLastLogin(System.currentTimeMillis());
             existingData.setLastIp(player.getAddress().getAddress().getHostAddress());
             
-            plugin.cachePlayerData(bedrockData.username(), existingData);
+            if (!plugin.getAuthStateRegistry().authenticate(player, existingData)) {
+                return;
+            }
             player.sendMessage(plugin.getLanguageManager().getMessage("bedrock.auto_login"));
 
             // Update device info if changed
-            if (plugin.getDatabase() != null) {
-                plugin.getDatabase().updateBedrockDeviceInfo(
-                    bedrockData.username(),
-                    bedrockData.deviceId(),
-                    bedrockData.deviceOs()
-                );
-            }
+            plugin.getStorage().updateBedrockDevice(
+                bedrockData.username(),
+                bedrockData.deviceId(),
+                bedrockData.deviceOs()
+            );
         } else {
             // XUID mismatch - potential security issue
             handleSecurityMismatch(player);
@@ -141,12 +139,14 @@ public class BedrockAuthHandler implements Listener {
     }
 
     private void handleAccountConflict(Player player) {
-        player.kickPlayer(plugin.getLanguageManager().getMessage("bedrock.account_conflict"));
+        plugin.getTaskScheduler().runOnEntity(player, () ->
+            player.kickPlayer(plugin.getLanguageManager().getMessage("bedrock.account_conflict")));
         plugin.getLogger().warning("Account conflict detected for: " + player.getName());
     }
 
     private void handleSecurityMismatch(Player player) {
-        player.kickPlayer(plugin.getLanguageManager().getMessage("bedrock.security_mismatch"));
+        plugin.getTaskScheduler().runOnEntity(player, () ->
+            player.kickPlayer(plugin.getLanguageManager().getMessage("bedrock.security_mismatch")));
         plugin.getLogger().warning("Security mismatch for Bedrock player: " + player.getName());
     }
 
@@ -3,13 +3,34 @@ package dev.doom.customauth.commands;
 
 import dev.doom.customauth.CustomAuth;
 import dev.doom.customauth.models.PlayerData;
+import dev.doom.customauth.scheduler.TaskScheduler;
+import dev.doom.customauth.scheduler.TaskStats;
+import dev.doom.customauth.security.HashCalibrator;
+import dev.doom.customauth.security.PasswordHasher;
+import dev.doom.customauth.security.PreLoginGuard;
+import dev.doom.customauth.storage.AccountTransfer;
+import dev.doom.customauth.storage.LoginWriteBuffer;
+import dev.doom.customauth.storage.PlayerDataCache;
+import dev.doom.customauth.storage.PurgeJob;
+import dev.doom.customauth.storage.RegisteredNameFilter;
+import dev.doom.customauth.storage.ReplicaRouter;
+import dev.doom.customauth.storage.SqliteWriter;
+import dev.doom.customauth.storage.TimedAuthStorage;
+import dev.doom.customauth.utils.SecurityUtils;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class AdminCommand implements CommandExecutor, TabCompleter {
@@ -39,6 +60,9 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             case "cleanup" -> handleCleanup(sender);
             case "reset2fa" -> handleReset2FA(sender, args);
             case "info" -> handleInfo(sender, args);
+            case "calibrate" -> handleCalibrate(sender);
+            case "export" -> handleExport(sender, args);
+            case "import" -> handleImport(sender, args);
             default -> sendHelp(sender);
         }
 
@@ -53,23 +77,19 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
 
         String targetUsername = args[1].toLowerCase();
         
-        if (plugin.getDatabase() != null) {
-            plugin.getDatabase().deletePlayer(targetUsername).thenAccept(success -> {
-                if (success) {
-                    handleSuccessfulUnregister(sender, targetUsername);
-                } else {
-                    sender.sendMessage(plugin.getLanguageManager().getMessage("admin.unregister_failed"));
-                }
-            });
-        } else {
-            plugin.getFileStorage().deletePlayer(targetUsername);
-            handleSuccessfulUnregister(sender, targetUsername);
-        }
+        plugin.getStorage().deleteAccount(targetUsername).thenAccept(success -> {
+            if (success) {
+                handleSuccessfulUnregister(sender, targetUsername);
+            } else {
+                sender.sendMessage(plugin.getLanguageManager().getMessage("admin.unregister_failed"));
+            }
+        });
     }
 
     private void handleSuccessfulUnregister(CommandSender sender, String username) {
         // Remove from cache
         plugin.getPlayerCache().invalidate(username);
+        plugin.getAccountLookupService().recordRemoved(username);
         
         // Remove sessions
         plugin.getSessionManager().invalidateAllSessions(username);
@@ -77,12 +97,8 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         // Kick player if online
         Player target = plugin.getServer().getPlayer(username);
         if (target != null) {
-            if (plugin.isFolia()) {
-                target.getScheduler().run(plugin, task -> 
-                    target.kickPlayer(plugin.getLanguageManager().getMessage("admin.unregistered")), () -> {});
-            } else {
-                target.kickPlayer(plugin.getLanguageManager().getMessage("admin.unregistered"));
-            }
+            plugin.getTaskScheduler().runOnEntity(target, () ->
+                target.kickPlayer(plugin.getLanguageManager().getMessage("admin.unregistered")));
         }
 
         sender.sendMessage(plugin.getLanguageManager().getMessage("admin.unregister_success")
@@ -107,8 +123,11 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        data.setLoggedIn(true);
-        plugin.cachePlayerData(target.getName().toLowerCase(), data);
+        if (!plugin.getAuthStateRegistry().authenticate(target, data)) {
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.forcelogin_already")
+                .replace("%player%", target.getName()));
+            return;
+        }
         target.sendMessage(plugin.getLanguageManager().getMessage("admin.forced_login"));
         sender.sendMessage(plugin.getLanguageManager().getMessage("admin.forcelogin_success")
             .replace("%player%", target.getName()));
@@ -117,17 +136,22 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
     private void handleReload(CommandSender sender) {
         plugin.getConfigManager().reloadConfigs();
         plugin.getLanguageManager().reloadMessages();
+        plugin.getSecurityUtils().getPasswordHashers().load();
+        plugin.getProtectionGate().reload();
+        plugin.getMovementFreezer().loadConfig();
+        plugin.getVisibilityManager().loadConfig();
+        plugin.getAuthTimeoutWheel().loadConfig();
+        plugin.getPlayerCache().loadConfig();
+        if (plugin.getDatabase() != null) {
+            plugin.getDatabase().getPurgeJob().loadConfig();
+        }
+        plugin.getCommandAllowList().rebuild();
         sender.sendMessage(plugin.getLanguageManager().getMessage("admin.reload_success"));
     }
 
     private void handleStatus(CommandSender sender) {
         int totalPlayers = plugin.getServer().getOnlinePlayers().size();
-        int authenticatedPlayers = (int) plugin.getServer().getOnlinePlayers().stream()
-            .filter(p -> {
-                PlayerData data = plugin.getCachedPlayerData(p.getName().toLowerCase());
-                return data != null && data.isLoggedIn();
-            })
-            .count();
+        int authenticatedPlayers = plugin.getAuthStateRegistry().getAuthenticatedCount();
         int bedrockPlayers = plugin.getBedrockAuthHandler() != null ? 
             plugin.getBedrockAuthHandler().getActiveBedrockPlayers() : 0;
 
@@ -139,17 +163,228 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_bedrock")
             .replace("%count%", String.valueOf(bedrockPlayers)));
         sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_storage")
-            .replace("%type%", plugin.getDatabase() != null ? "MySQL" : "File"));
-    }
+            .replace("%type%", plugin.getDatabase() != null ? plugin.getDatabase().getDialect().getName() : "File"));
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_hashing")
+            .replace("%queued%", String.valueOf(plugin.getHashingService().getQueueDepth()))
+            .replace("%active%", String.valueOf(plugin.getHashingService().getActiveCount()))
+            .replace("%threads%", String.valueOf(plugin.getHashingService().getThreads()))
+            .replace("%avg_wait%", String.valueOf(plugin.getHashingService().getAverageWaitMillis()))
+            .replace("%max_wait%", String.valueOf(plugin.getHashingService().getMaxWaitMillis()))
+            .replace("%rejected%", String.valueOf(
+                plugin.getHashingService().getRejected() + plugin.getHashingService().getExpired())));
 
-    private void handleCleanup(CommandSender sender) {
         if (plugin.getDatabase() != null) {
-            plugin.getDatabase().cleanup().thenRun(() -> 
-                sender.sendMessage(plugin.getLanguageManager().getMessage("admin.cleanup_success")));
-        } else {
-            plugin.getFileStorage().cleanup();
-            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.cleanup_success"));
+            LoginWriteBuffer writes = plugin.getDatabase().getLoginWriteBuffer();
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_write_behind")
+                .replace("%recorded%", String.valueOf(writes.getRecorded()))
+                .replace("%written%", String.valueOf(writes.getWritten()))
+                .replace("%flushes%", String.valueOf(writes.getFlushes()))
+                .replace("%pending%", String.valueOf(writes.getPending())));
+        }
+
+        if (plugin.getDatabase() != null) {
+            PurgeJob purge = plugin.getDatabase().getPurgeJob();
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_purge")
+                .replace("%task%", purge.getTask())
+                .replace("%rows%", String.valueOf(purge.getTaskRows()))
+                .replace("%rate%", String.valueOf(purge.getRowsPerSecond()))
+                .replace("%chunk%", String.valueOf(purge.getChunkSize()))
+                .replace("%chunk_time%", String.valueOf(purge.getLastChunkMillis()))
+                .replace("%total%", String.valueOf(purge.getTotalDeleted())));
+        }
+
+        if (plugin.getDatabase() != null && plugin.getDatabase().getReplicas() != null) {
+            ReplicaRouter router = plugin.getDatabase().getReplicas();
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_replicas")
+                .replace("%replica_reads%", String.valueOf(router.getReplicaReads()))
+                .replace("%pinned%", String.valueOf(router.getPinnedReads()))
+                .replace("%failovers%", String.valueOf(router.getFailovers())));
+            for (ReplicaRouter.Pool pool : router.getPools()) {
+                sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_db_pool")
+                    .replace("%pool%", pool.getName())
+                    .replace("%state%", pool.isHealthy() ? "up" : "down")
+                    .replace("%queries%", String.valueOf(pool.getQueries()))
+                    .replace("%avg%", String.format("%.1f", pool.getAverageMillis()))
+                    .replace("%max%", String.valueOf(pool.getMaxMillis()))
+                    .replace("%failures%", String.valueOf(pool.getFailures())));
+            }
         }
+
+        if (plugin.getDatabase() != null && plugin.getDatabase().getWriter() != null) {
+            SqliteWriter writer = plugin.getDatabase().getWriter();
+            long commits = writer.getCommits();
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_sqlite_writer")
+                .replace("%writes%", String.valueOf(writer.getWrites()))
+                .replace("%commits%", String.valueOf(commits))
+                .replace("%group%", String.format("%.1f", commits == 0 ? 0.0 : (double) writer.getWrites() / commits))
+                .replace("%queued%", String.valueOf(writer.getQueued())));
+        }
+
+        TimedAuthStorage.OperationStats lookups = plugin.getStorageTimings().getStats("lookupAccount");
+        TimedAuthStorage.OperationStats sessions = plugin.getStorageTimings().getStats("saveSession");
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_storage_latency")
+            .replace("%lookups%", String.valueOf(lookups.getCalls()))
+            .replace("%lookup_avg%", String.format("%.1f", lookups.getAverageMillis()))
+            .replace("%lookup_max%", String.valueOf(lookups.getMaxMillis()))
+            .replace("%sessions%", String.valueOf(sessions.getCalls()))
+            .replace("%session_avg%", String.format("%.1f", sessions.getAverageMillis()))
+            .replace("%session_max%", String.valueOf(sessions.getMaxMillis())));
+
+        PlayerDataCache cache = plugin.getPlayerCache();
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_cache")
+            .replace("%online%", String.valueOf(cache.getOnlineSize()))
+            .replace("%offline%", String.valueOf(cache.getOfflineSize()))
+            .replace("%limit%", String.valueOf(cache.getOfflineLimit()))
+            .replace("%hit_rate%", String.format("%.1f", cache.getHitRate() * 100))
+            .replace("%evictions%", String.valueOf(cache.getEvictions())));
+
+        RegisteredNameFilter nameFilter = plugin.getRegisteredNameFilter();
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_name_filter")
+            .replace("%names%", String.valueOf(nameFilter.getNameCount()))
+            .replace("%memory%", String.valueOf(nameFilter.getMemoryBytes() / 1024))
+            .replace("%fpp%", String.format("%.2f", nameFilter.getFalsePositiveRate() * 100))
+            .replace("%state%", nameFilter.isReady() ? "ready" : "loading"));
+
+        PreLoginGuard guard = plugin.getPreLoginGuard();
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_prelogin")
+            .replace("%banned%", String.valueOf(guard.getRejections(PreLoginGuard.Reason.IP_BANNED)))
+            .replace("%rate_limited%", String.valueOf(guard.getRejections(PreLoginGuard.Reason.RATE_LIMITED)))
+            .replace("%account_cap%", String.valueOf(guard.getRejections(PreLoginGuard.Reason.ACCOUNT_CAP))));
+
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_frozen")
+            .replace("%count%", String.valueOf(plugin.getMovementFreezer().getFrozenCount()))
+            .replace("%corrections%", String.valueOf(plugin.getMovementFreezer().getCorrections())));
+
+        TaskStats asyncTasks = plugin.getTaskScheduler().getStats(TaskScheduler.Kind.ASYNC);
+        TaskStats entityTasks = plugin.getTaskScheduler().getStats(TaskScheduler.Kind.ENTITY);
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_scheduler")
+            .replace("%async%", String.valueOf(asyncTasks.getCompleted()))
+            .replace("%async_wait%", String.format("%.1f", asyncTasks.getAverageDelayMillis()))
+            .replace("%async_max%", String.valueOf(asyncTasks.getMaxRunMillis()))
+            .replace("%entity%", String.valueOf(entityTasks.getCompleted()))
+            .replace("%entity_wait%", String.format("%.1f", entityTasks.getAverageDelayMillis()))
+            .replace("%failed%", String.valueOf(asyncTasks.getFailed() + entityTasks.getFailed())));
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_io")
+            .replace("%executor%", plugin.getConfig().getString("performance.executor", "virtual"))
+            .replace("%db_active%", String.valueOf(plugin.getDatabaseExecutor().getActive()))
+            .replace("%db_limit%", String.valueOf(plugin.getDatabaseExecutor().getLimit()))
+            .replace("%db_waiting%", String.valueOf(plugin.getDatabaseExecutor().getWaiting()))
+            .replace("%mail_active%", String.valueOf(plugin.getMailExecutor().getActive()))
+            .replace("%mail_limit%", String.valueOf(plugin.getMailExecutor().getLimit())));
+
+        HashCalibrator.CalibrationResult calibration = plugin.getHashCalibrator().getLastResult();
+        PasswordHasher hasher = plugin.getSecurityUtils().getPasswordHashers().getTarget();
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.status_hash_cost")
+            .replace("%algorithm%", hasher.getName())
+            .replace("%cost%", String.valueOf(hasher.getCost()))
+            .replace("%calibration%", calibration != null && calibration.algorithm().equals(hasher.getName()) ?
+                "p95 " + calibration.p95Millis() + "ms, " + new java.util.Date(calibration.measuredAt()) :
+                "not calibrated"));
+    }
+
+    private void handleCalibrate(CommandSender sender) {
+        if (plugin.getHashCalibrator().isRunning()) {
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.calibrate_running"));
+            return;
+        }
+
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.calibrate_started"));
+        plugin.getHashCalibrator().calibrate().whenComplete((result, error) -> {
+            if (error != null) {
+                sender.sendMessage(plugin.getLanguageManager().getMessage("admin.calibrate_failed")
+                    .replace("%error%", String.valueOf(error.getMessage())));
+                return;
+            }
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.calibrate_success")
+                .replace("%algorithm%", result.algorithm())
+                .replace("%cost%", String.valueOf(result.cost()))
+                .replace("%p95%", String.valueOf(result.p95Millis()))
+                .replace("%capacity%", String.format("%.1f", result.capacityPerSecond())));
+        });
+    }
+
+    private void handleExport(CommandSender sender, String[] args) {
+        if (plugin.getDatabase() == null) {
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.transfer_requires_database"));
+            return;
+        }
+
+        String name = args.length >= 2 ? args[1] : "accounts-" + System.currentTimeMillis() + ".csv";
+        File file = exportFile(name);
+        file.getParentFile().mkdirs();
+        long start = System.currentTimeMillis();
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.export_started")
+            .replace("%file%", file.getName()));
+
+        plugin.getDatabase().exportAccounts(file).whenComplete((exported, error) -> {
+            if (error != null) {
+                sender.sendMessage(plugin.getLanguageManager().getMessage("admin.transfer_failed")
+                    .replace("%error%", String.valueOf(error.getMessage())));
+                return;
+            }
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.export_success")
+                .replace("%count%", String.valueOf(exported))
+                .replace("%file%", file.getName())
+                .replace("%time%", String.valueOf((System.currentTimeMillis() - start) / 1000)));
+        });
+    }
+
+    private void handleImport(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.import_usage"));
+            return;
+        }
+        if (plugin.getDatabase() == null) {
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.transfer_requires_database"));
+            return;
+        }
+
+        File file = exportFile(args[1]);
+        if (!file.isFile()) {
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.import_not_found")
+                .replace("%file%", file.getName()));
+            return;
+        }
+
+        int batchSize = Math.max(1, plugin.getConfig().getInt("storage.bulk.batch_size", 10000));
+        long start = System.currentTimeMillis();
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.import_started")
+            .replace("%file%", file.getName()));
+
+        CompletableFuture.supplyAsync(() -> {
+            long[] imported = new long[1];
+            try (Reader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                AccountTransfer.read(in, batchSize,
+                    batch -> imported[0] += plugin.getDatabase().importAccounts(batch).join());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                // Imported names may still be remembered as unregistered
+                plugin.getAccountLookupService().invalidateAll();
+            }
+            return imported[0];
+        }, plugin.getAsyncExecutor()).whenComplete((imported, error) -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                sender.sendMessage(plugin.getLanguageManager().getMessage("admin.transfer_failed")
+                    .replace("%error%", String.valueOf(cause.getMessage())));
+                return;
+            }
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.import_success")
+                .replace("%count%", String.valueOf(imported))
+                .replace("%file%", file.getName())
+                .replace("%time%", String.valueOf((System.currentTimeMillis() - start) / 1000)));
+        });
+    }
+
+    // Only a file name is taken, so exports cannot be written outside the exports folder
+    private File exportFile(String name) {
+        return new File(new File(plugin.getDataFolder(), "exports"), new File(name).getName());
+    }
+
+    private void handleCleanup(CommandSender sender) {
+        plugin.getStorage().cleanup().thenRun(() ->
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.cleanup_success")));
     }
 
     private void handleReset2FA(CommandSender sender, String[] args) {
@@ -166,21 +401,14 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        data.setVerified(false);
-        if (plugin.getDatabase() != null) {
-            plugin.getDatabase().reset2FA(targetUsername).thenAccept(success -> {
-                if (success) {
-                    sender.sendMessage(plugin.getLanguageManager().getMessage("admin.reset2fa_success")
-                        .replace("%player%", targetUsername));
-                } else {
-                    sender.sendMessage(plugin.getLanguageManager().getMessage("admin.reset2fa_failed"));
-                }
-            });
-        } else {
-            plugin.getFileStorage().queueSave(data);
-            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.reset2fa_success")
-                .replace("%player%", targetUsername));
-        }
+        plugin.getStorage().resetVerification(targetUsername).thenAccept(success -> {
+            if (success) {
+                sender.sendMessage(plugin.getLanguageManager().getMessage("admin.reset2fa_success")
+                    .replace("%player%", targetUsername));
+            } else {
+                sender.sendMessage(plugin.getLanguageManager().getMessage("admin.reset2fa_failed"));
+            }
+        });
     }
 
     private void handleInfo(CommandSender sender, String[] args) {
@@ -190,27 +418,15 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         }
 
         String targetUsername = args[1].toLowerCase();
-        PlayerData data = plugin.getCachedPlayerData(targetUsername);
-        
-        if (data == null) {
-            if (plugin.getDatabase() != null) {
-                plugin.getDatabase().getPlayerData(targetUsername).thenAccept(optionalData -> {
-                    optionalData.ifPresentOrElse(
-                        playerData -> sendPlayerInfo(sender, playerData),
-                        () -> sender.sendMessage(plugin.getLanguageManager().getMessage("error.player_not_found"))
-                    );
-                });
+        plugin.getAccountLookupService().lookup(targetUsername).thenAccept(lookup -> {
+            if (lookup.isPresent()) {
+                sendPlayerInfo(sender, lookup.playerData());
+                sendAccountsOnIp(sender, lookup.playerData());
             } else {
-                data = plugin.getFileStorage().loadPlayer(targetUsername);
-                if (data != null) {
-                    sendPlayerInfo(sender, data);
-                } else {
-                    sender.sendMessage(plugin.getLanguageManager().getMessage("error.player_not_found"));
-                }
+                sender.sendMessage(plugin.getLanguageManager().getMessage(
+                    lookup.isError() ? "error.database_error" : "error.player_not_found"));
             }
-        } else {
-            sendPlayerInfo(sender, data);
-        }
+        });
     }
     private void sendPlayerInfo(CommandSender sender, PlayerData data) {
         sender.sendMessage(plugin.getLanguageManager().getMessage("admin.info_header")
@@ -235,6 +451,16 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         }
     }
 
+    private void sendAccountsOnIp(CommandSender sender, PlayerData data) {
+        byte[] ip = SecurityUtils.ipLiteralToBytes(data.getLastIp());
+        if (plugin.getDatabase() == null || ip == null) {
+            return;
+        }
+        plugin.getDatabase().getAccountsByIp(ip, 20).thenAccept(accounts ->
+            sender.sendMessage(plugin.getLanguageManager().getMessage("admin.info_accounts_on_ip")
+                .replace("%accounts%", String.join(", ", accounts))));
+    }
+
     private void sendHelp(CommandSender sender) {
         sender.sendMessage(plugin.getLanguageManager().getMessage("admin.help_header"));
         sender.sendMessage(plugin.getLanguageManager().getMessage("admin.help_unregister"));
@@ -244,6 +470,9 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(plugin.getLanguageManager().getMessage("admin.help_cleanup"));
         sender.sendMessage(plugin.getLanguageManager().getMessage("admin.help_reset2fa"));
         sender.sendMessage(plugin.getLanguageManager().getMessage("admin.help_info"));
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.help_calibrate"));
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.help_export"));
+        sender.sendMessage(plugin.getLanguageManager().getMessage("admin.help_import"));
     }
 
     @Override
@@ -261,6 +490,9 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             completions.add("cleanup");
             completions.add("reset2fa");
             completions.add("info");
+            completions.add("calibrate");
+            completions.add("export");
+            completions.add("import");
             
             return completions.stream()
                 .filter(s -> s.toLowerCase().startsWith(args[0].toLowerCase()))
@@ -10,6 +10,7 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class ChangePasswordCommand implements CommandExecutor, TabCompleter {
     private final CustomAuth plugin;
@@ -33,12 +34,7 @@ public class ChangePasswordCommand implements CommandExecutor, TabCompleter {
         }
 
         // Schedule password change process
-        if (plugin.isFolia()) {
-            player.getScheduler().run(plugin, task -> handlePasswordChange(player, args), () -> {});
-        } else {
-            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, 
-                () -> handlePasswordChange(player, args));
-        }
+        plugin.getTaskScheduler().runAsync(() -> handlePasswordChange(player, args));
 
         return true;
     }
@@ -48,7 +44,7 @@ public class ChangePasswordCommand implements CommandExecutor, TabCompleter {
 
         // Check if logged in
         PlayerData data = plugin.getCachedPlayerData(username);
-        if (data == null || !data.isLoggedIn()) {
+        if (data == null || !plugin.getAuthStateRegistry().isAuthenticated(player)) {
             player.sendMessage(plugin.getLanguageManager().getMessage("error.not_logged_in"));
             return;
         }
@@ -62,35 +58,40 @@ public class ChangePasswordCommand implements CommandExecutor, TabCompleter {
         String oldPassword = args[0];
         String newPassword = args[1];
 
-        // Verify old password
-        if (!plugin.getSecurityUtils().checkPassword(oldPassword, data.getHashedPassword())) {
-            player.sendMessage(plugin.getLanguageManager().getMessage("changepassword.wrong_password"));
-            return;
-        }
-
         // Validate new password
         if (!plugin.getSecurityUtils().isPasswordValid(newPassword)) {
             player.sendMessage(plugin.getLanguageManager().getMessage("changepassword.password_too_weak"));
             return;
         }
 
-        // Update password
-        String newHash = plugin.getSecurityUtils().hashPassword(newPassword);
+        // Verify old password and hash the new one on the hashing pool
+        plugin.getHashingService().verify(oldPassword, data.getHashedPassword())
+            .thenCompose(matches -> matches ?
+                plugin.getHashingService().hash(newPassword) :
+                CompletableFuture.<String>completedFuture(null))
+            .whenCompleteAsync((newHash, error) -> {
+                if (error != null) {
+                    plugin.getHashingService().notifyFailure(player, error, "error.password_change_failed");
+                } else if (newHash == null) {
+                    player.sendMessage(plugin.getLanguageManager().getMessage("changepassword.wrong_password"));
+                } else {
+                    storeNewPassword(player, data, newHash);
+                }
+            }, plugin.getAsyncExecutor());
+    }
+
+    private void storeNewPassword(Player player, PlayerData data, String newHash) {
+        String username = player.getName().toLowerCase();
         data.setHashedPassword(newHash);
 
         // Update storage
-        if (plugin.getDatabase() != null) {
-            plugin.getDatabase().updatePassword(username, newHash).thenAccept(success -> {
-                if (success) {
-                    handleSuccessfulPasswordChange(player, data);
-                } else {
-                    player.sendMessage(plugin.getLanguageManager().getMessage("error.password_change_failed"));
-                }
-            });
-        } else {
-            plugin.getFileStorage().queueSave(data);
-            handleSuccessfulPasswordChange(player, data);
-        }
+        plugin.getStorage().updatePassword(username, newHash).thenAccept(success -> {
+            if (success) {
+                handleSuccessfulPasswordChange(player, data);
+            } else {
+                player.sendMessage(plugin.getLanguageManager().getMessage("error.password_change_failed"));
+            }
+        });
     }
 
     private void handleSuccessfulPasswordChange(Player player, PlayerData data) {
@@ -2,6 +2,7 @@
 package dev.doom.customauth.commands;
 
 import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.AccountLookup;
 import dev.doom.customauth.models.PlayerData;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -33,12 +34,7 @@ public class LoginCommand implements CommandExecutor, TabCompleter {
         }
 
         // Schedule login process
-        if (plugin.isFolia()) {
-            player.getScheduler().run(plugin, task -> handleLogin(player, args), () -> {});
-        } else {
-            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, 
-                () -> handleLogin(player, args));
-        }
+        plugin.getTaskScheduler().runAsync(() -> handleLogin(player, args));
 
         return true;
     }
@@ -46,17 +42,8 @@ public class LoginCommand implements CommandExecutor, TabCompleter {
     private void handleLogin(Player player, String[] args) {
         String username = player.getName().toLowerCase();
 
-        // Check if registered
-        if (plugin.getDatabase() != null ? 
-            !plugin.getDatabase().isRegistered(username).join() :
-            !plugin.getFileStorage().isRegistered(username)) {
-            player.sendMessage(plugin.getLanguageManager().getMessage("login.not_registered"));
-            return;
-        }
-
         // Check if already logged in
-        PlayerData data = plugin.getCachedPlayerData(username);
-        if (data != null && data.isLoggedIn()) {
+        if (plugin.getAuthStateRegistry().isAuthenticated(player)) {
             player.sendMessage(plugin.getLanguageManager().getMessage("login.already_logged_in"));
             return;
         }
@@ -69,47 +56,52 @@ public class LoginCommand implements CommandExecutor, TabCompleter {
 
         // Check login attempts
         if (!plugin.getSecurityUtils().canAttemptLogin(player)) {
-            player.kickPlayer(plugin.getLanguageManager().getMessage("login.too_many_attempts"));
+            plugin.getTaskScheduler().runOnEntity(player, () ->
+                player.kickPlayer(plugin.getLanguageManager().getMessage("login.too_many_attempts")));
             return;
         }
 
-        // Load player data if not cached
-        if (data == null) {
-            data = plugin.getDatabase() != null ?
-                plugin.getDatabase().getPlayerData(username).join().orElse(null) :
-                plugin.getFileStorage().loadPlayer(username);
-
-            if (data == null) {
-                player.sendMessage(plugin.getLanguageManager().getMessage("error.data_not_found"));
-                return;
-            }
+        // Registration status and data in one lookup
+        AccountLookup lookup = plugin.getAccountLookupService().lookupNow(username);
+        if (lookup.isError()) {
+            player.sendMessage(plugin.getLanguageManager().getMessage("error.database_error"));
+            return;
         }
-
-        // Verify password
-        if (plugin.getSecurityUtils().checkPassword(args[0], data.getHashedPassword())) {
-            handleSuccessfulLogin(player, data);
-        } else {
-            handleFailedLogin(player);
+        if (lookup.isAbsent()) {
+            player.sendMessage(plugin.getLanguageManager().getMessage("login.not_registered"));
+            return;
         }
+
+        // Verify password on the hashing pool, then continue off the hashing threads
+        PlayerData account = lookup.playerData();
+        String password = args[0];
+        plugin.getHashingService().verify(password, account.getHashedPassword())
+            .whenCompleteAsync((matches, error) -> {
+                if (error != null) {
+                    plugin.getHashingService().notifyFailure(player, error, "error.login_failed");
+                } else if (matches) {
+                    handleSuccessfulLogin(player, account);
+                    upgradeHashIfNeeded(username, password, account);
+                } else {
+                    handleFailedLogin(player);
+                }
+            }, plugin.getAsyncExecutor());
     }
 
     private void handleSuccessfulLogin(Player player, PlayerData data) {
         String username = player.getName().toLowerCase();
         
         // Update login data
-        data.setLoggedIn(true);
         data.setLastLogin(System.currentTimeMillis());
         data.setLastIp(player.getAddress().getAddress().getHostAddress());
-        
-        // Update storage
-        if (plugin.getDatabase() != null) {
-            plugin.getDatabase().updateLoginData(username, data.getLastIp(), data.getLastLogin());
-        } else {
-            plugin.getFileStorage().updateLoginData(username, data.getLastIp(), data.getLastLogin());
+
+        // Update cache and open the protection gate, unless the player quit during the hash check
+        if (!plugin.getAuthStateRegistry().authenticate(player, data)) {
+            return;
         }
 
-        // Update cache
-        plugin.cachePlayerData(username, data);
+        // Update storage
+        plugin.getStorage().recordLogin(username, player.getAddress().getAddress(), data.getLastLogin());
 
         // Create session if enabled
         if (plugin.getConfig().getBoolean("session.enabled")) {
@@ -121,15 +113,29 @@ public class LoginCommand implements CommandExecutor, TabCompleter {
 
         // Teleport to spawn if configured
         if (plugin.getConfig().getBoolean("spawn.teleport_after_login")) {
-            plugin.getServer().getScheduler().runTask(plugin, () -> {
-                player.teleport(plugin.getConfigManager().getSpawnLocation());
-            });
+            plugin.getTaskScheduler().runOnEntity(player, () ->
+                player.teleport(plugin.getConfigManager().getSpawnLocation()));
         }
 
         // Reset login attempts
         plugin.getSecurityUtils().resetLoginAttempts(player);
     }
 
+    private void upgradeHashIfNeeded(String username, String password, PlayerData data) {
+        if (!plugin.getSecurityUtils().needsRehash(data.getHashedPassword())) {
+            return;
+        }
+
+        // Opportunistic: if the hashing pool is busy the old hash simply keeps working
+        plugin.getHashingService().hash(password).thenAcceptAsync(newHash -> {
+            data.setHashedPassword(newHash);
+            plugin.getStorage().updatePassword(username, newHash);
+        }, plugin.getAsyncExecutor()).exceptionally(error -> {
+            plugin.getLogger().fine("Skipped password rehash for " + username + ": " + error.getMessage());
+            return null;
+        });
+    }
+
     private void handleFailedLogin(Player player) {
         plugin.getSecurityUtils().recordFailedAttempt(player);
         player.sendMessage(plugin.getLanguageManager().getMessage("login.wrong_password"));
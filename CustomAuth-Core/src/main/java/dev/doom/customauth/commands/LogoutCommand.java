@@ -32,27 +32,21 @@ public class LogoutCommand implements CommandExecutor {
         String username = player.getName().toLowerCase();
         PlayerData data = plugin.getCachedPlayerData(username);
 
-        if (data == null || !data.isLoggedIn()) {
+        if (data == null || !plugin.getAuthStateRegistry().isAuthenticated(player)) {
             player.sendMessage(plugin.getLanguageManager().getMessage("logout.not_logged_in"));
             return true;
         }
 
         // Perform logout
-        data.setLoggedIn(false);
-        plugin.cachePlayerData(username, data);
+        plugin.getAuthStateRegistry().deauthenticate(player, data);
 
         // Remove session
         plugin.getSessionManager().removeSession(username);
 
         // Teleport to spawn if configured
         if (plugin.getConfig().getBoolean("spawn.teleport_after_logout")) {
-            if (plugin.isFolia()) {
-                player.getScheduler().run(plugin, task -> 
-                    player.teleport(plugin.getConfigManager().getSpawnLocation()), () -> {});
-            } else {
-                plugin.getServer().getScheduler().runTask(plugin, () ->
-                    player.teleport(plugin.getConfigManager().getSpawnLocation()));
-            }
+            plugin.getTaskScheduler().runOnEntity(player, () ->
+                player.teleport(plugin.getConfigManager().getSpawnLocation()));
         }
 
         player.sendMessage(plugin.getLanguageManager().getMessage("logout.success"));
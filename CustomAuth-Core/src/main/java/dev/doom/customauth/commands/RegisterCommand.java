@@ -2,6 +2,7 @@
 package dev.doom.customauth.commands;
 
 import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.AccountLookup;
 import dev.doom.customauth.models.PlayerData;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -33,12 +34,7 @@ public class RegisterCommand implements CommandExecutor, TabCompleter {
         }
 
         // Schedule registration process
-        if (plugin.isFolia()) {
-            player.getScheduler().run(plugin, task -> handleRegistration(player, args), () -> {});
-        } else {
-            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, 
-                () -> handleRegistration(player, args));
-        }
+        plugin.getTaskScheduler().runAsync(() -> handleRegistration(player, args));
 
         return true;
     }
@@ -46,10 +42,13 @@ public class RegisterCommand implements CommandExecutor, TabCompleter {
     private void handleRegistration(Player player, String[] args) {
         String username = player.getName().toLowerCase();
 
-        // Check if already registered
-        if (plugin.getDatabase() != null ? 
-            plugin.getDatabase().isRegistered(username).join() :
-            plugin.getFileStorage().isRegistered(username)) {
+        // Check if already registered, a failed lookup must not allow registering over an account
+        AccountLookup lookup = plugin.getAccountLookupService().lookupNow(username);
+        if (lookup.isError()) {
+            player.sendMessage(plugin.getLanguageManager().getMessage("error.database_error"));
+            return;
+        }
+        if (lookup.isPresent()) {
             player.sendMessage(plugin.getLanguageManager().getMessage("register.already_registered"));
             return;
         }
@@ -84,22 +83,26 @@ public class RegisterCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        // Register the player
-        String hashedPassword = plugin.getSecurityUtils().hashPassword(args[0]);
+        // Hash on the hashing pool, then register off the hashing threads
+        plugin.getHashingService().hash(args[0]).whenCompleteAsync((hashedPassword, error) -> {
+            if (error != null) {
+                plugin.getHashingService().notifyFailure(player, error, "error.registration_failed");
+                return;
+            }
+            completeRegistration(player, username, hashedPassword, email);
+        }, plugin.getAsyncExecutor());
+    }
+
+    private void completeRegistration(Player player, String username, String hashedPassword, String email) {
         PlayerData data = new PlayerData(username, hashedPassword);
         data.setEmail(email);
         data.setLastIp(player.getAddress().getAddress().getHostAddress());
         data.setLastLogin(System.currentTimeMillis());
 
-        boolean success = false;
-        if (plugin.getDatabase() != null) {
-            success = plugin.getDatabase().registerPlayer(username, hashedPassword, email).join();
-        } else {
-            plugin.getFileStorage().queueSave(data);
-            success = true;
-        }
+        boolean success = plugin.getStorage().registerAccount(data).join();
 
         if (success) {
+            plugin.getAccountLookupService().invalidate(username);
             handleSuccessfulRegistration(player, data, email);
         } else {
             player.sendMessage(plugin.getLanguageManager().getMessage("error.registration_failed"));
@@ -124,16 +127,15 @@ public class RegisterCommand implements CommandExecutor, TabCompleter {
         }
 
         // Auto-login after registration if enabled
-        if (plugin.getConfig().getBoolean("login.auto_login_after_register")) {
-            data.setLoggedIn(true);
+        if (plugin.getConfig().getBoolean("login.auto_login_after_register")
+                && plugin.getAuthStateRegistry().authenticate(player, data)) {
             player.sendMessage(plugin.getLanguageManager().getMessage("login.auto_login"));
         }
 
         // Teleport to spawn if configured
         if (plugin.getConfig().getBoolean("spawn.teleport_after_register")) {
-            plugin.getServer().getScheduler().runTask(plugin, () -> {
-                player.teleport(plugin.getConfigManager().getSpawnLocation());
-            });
+            plugin.getTaskScheduler().runOnEntity(player, () ->
+                player.teleport(plugin.getConfigManager().getSpawnLocation()));
         }
     }
 
@@ -40,20 +40,25 @@ public class ResetPasswordCommand implements CommandExecutor {
         // Generate reset token
         String resetToken = plugin.getSecurityUtils().generateToken();
         
-        // Store reset token
-        if (plugin.getDatabase() != null) {
-            plugin.getDatabase().saveResetToken(username, resetToken, 
-                System.currentTimeMillis() + (3600 * 1000)); // 1 hour expiry
-        }
-
-        // Send reset email
-        plugin.getEmailSender().sendPasswordResetEmail(username, data.getEmail(), resetToken)
-            .thenAccept(sent -> {
-                if (sent) {
-                    player.sendMessage(plugin.getLanguageManager().getMessage("resetpassword.email_sent"));
-                } else {
-                    player.sendMessage(plugin.getLanguageManager().getMessage("error.email_failed"));
+        // Store reset token, and only mail it once it is stored
+        plugin.getStorage().saveResetToken(username, resetToken,
+            System.currentTimeMillis() + (3600 * 1000)) // 1 hour expiry
+            .whenComplete((ignored, error) -> {
+                if (error != null) {
+                    plugin.getLogger().warning("Failed to store reset token for " + username + ": " + error.getMessage());
+                    player.sendMessage(plugin.getLanguageManager().getMessage("error.database_error"));
+                    return;
                 }
+
+                // Send reset email
+                plugin.getEmailSender().sendPasswordResetEmail(username, data.getEmail(), resetToken)
+                    .thenAccept(sent -> {
+                        if (sent) {
+                            player.sendMessage(plugin.getLanguageManager().getMessage("resetpassword.email_sent"));
+                        } else {
+                            player.sendMessage(plugin.getLanguageManager().getMessage("error.email_failed"));
+                        }
+                    });
             });
 
         return true;
@@ -32,6 +32,15 @@ public class ConfigManager {
         plugin.getLanguageManager().reloadMessages();
     }
 
+    /**
+     * @return mysql, sqlite or file. Configs from before storage.type
+     *         existed keep using storage.mysql.enabled.
+     */
+    public String getStorageType() {
+        String fallback = plugin.getConfig().getBoolean("storage.mysql.enabled") ? "mysql" : "file";
+        return plugin.getConfig().getString("storage.type", fallback).toLowerCase();
+    }
+
     public Location getSpawnLocation() {
         String worldName = config.getString("spawn.world", "world");
         World world = plugin.getServer().getWorld(worldName);
@@ -2,13 +2,13 @@
 package dev.doom.customauth.events;
 
 import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.LoginSnapshot;
 import dev.doom.customauth.models.PlayerData;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.*;
-import java.time.Duration;
 
 public class AuthListener implements Listener {
     private final CustomAuth plugin;
@@ -20,6 +20,12 @@ public class AuthListener implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
+
+        // Everyone starts unauthenticated; this arms the protection gate before the first move
+        plugin.getMovementFreezer().clearLeftover(player);
+        plugin.getAuthStateRegistry().markPending(player);
+        plugin.getPlayerCache().pin(player.getName());
+        plugin.getVisibilityManager().addViewer(player);
         
         // Skip if player is Bedrock (handled by BedrockAuthHandler)
         if (plugin.getBedrockAuthHandler() != null && 
@@ -27,76 +33,36 @@ public class AuthListener implements Listener {
             return;
         }
 
-        // Schedule using appropriate scheduler
-        if (plugin.isFolia()) {
-            player.getScheduler().run(plugin, task -> handlePlayerJoin(player), () -> {});
-        } else {
-            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, 
-                () -> handlePlayerJoin(player));
-        }
+        // Normally prefetched during pre-login, otherwise the lookup blocks and has to run async
+        LoginSnapshot snapshot = plugin.getLoginPrefetcher().take(player);
+        plugin.getTaskScheduler().runAsync(() -> handlePlayerJoin(player, snapshot != null ? snapshot :
+            plugin.getLoginPrefetcher().load(player.getName(), player.getUniqueId())));
     }
 
-    private void handlePlayerJoin(Player player) {
-        String username = player.getName().toLowerCase();
-
-        // Check IP ban
-        if (!plugin.getSecurityUtils().isIpAllowed(player.getAddress().getAddress())) {
-            player.kickPlayer(plugin.getLanguageManager().getMessage("security.ip_banned"));
-            return;
+    private void handlePlayerJoin(Player player, LoginSnapshot snapshot) {
+        if (snapshot.playerData() != null) {
+            plugin.cachePlayerData(snapshot.username(), snapshot.playerData());
         }
 
         // Check session
-        if (plugin.getSessionManager().hasValidSession(player)) {
-            plugin.getSessionManager().resumeSession(player);
+        if (plugin.getSessionManager().hasValidSession(player, snapshot)
+                && plugin.getSessionManager().resumeSession(player, snapshot)) {
             return;
         }
 
-        // Hide player if configured
-        if (plugin.getConfig().getBoolean("security.hide_unauthed_players")) {
-            plugin.getServer().getOnlinePlayers().forEach(p -> p.hidePlayer(plugin, player));
-        }
-
-        // Check registration status
-        boolean isRegistered = plugin.getDatabase() != null ? 
-            plugin.getDatabase().isRegistered(username).join() :
-            plugin.getFileStorage().isRegistered(username);
-
-        if (!isRegistered) {
+        if (!snapshot.isRegistered()) {
             player.sendMessage(plugin.getLanguageManager().getMessage("register.required"));
         } else {
             player.sendMessage(plugin.getLanguageManager().getMessage("login.required"));
         }
 
-        // Start authentication timeout
-        startAuthenticationTimeout(player);
+        // Login deadline and reminders
+        plugin.getAuthTimeoutWheel().schedule(player);
 
         // Teleport to spawn if configured
         if (plugin.getConfig().getBoolean("spawn.teleport_on_join")) {
-            if (plugin.isFolia()) {
-                player.getScheduler().run(plugin, task -> 
-                    player.teleport(plugin.getConfigManager().getSpawnLocation()), () -> {});
-            } else {
-                plugin.getServer().getScheduler().runTask(plugin, () ->
-                    player.teleport(plugin.getConfigManager().getSpawnLocation()));
-            }
-        }
-    }
-
-    private void startAuthenticationTimeout(Player player) {
-        long timeout = plugin.getConfig().getLong("security.login_timeout");
-        
-        if (plugin.isFolia()) {
-            player.getScheduler().runDelayed(plugin, task -> {
-                if (player.isOnline() && !isAuthenticated(player)) {
-                    player.kick(plugin.getLanguageManager().getMessage("login.timeout"));
-                }
-            }, () -> {}, Duration.ofSeconds(timeout));
-        } else {
-            plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-                if (player.isOnline() && !isAuthenticated(player)) {
-                    player.kickPlayer(plugin.getLanguageManager().getMessage("login.timeout"));
-                }
-            }, timeout * 20L);
+            plugin.getTaskScheduler().runOnEntity(player, () ->
+                player.teleport(plugin.getConfigManager().getSpawnLocation()));
         }
     }
 
@@ -108,20 +74,12 @@ public class AuthListener implements Listener {
         // Save final data
         PlayerData data = plugin.getCachedPlayerData(username);
         if (data != null) {
-            if (plugin.getDatabase() != null) {
-                plugin.getDatabase().updateLoginData(username, data.getLastIp(), data.getLastLogin());
-            } else {
-                plugin.getFileStorage().queueSave(data);
-            }
+            plugin.getStorage().recordLastSeen(username, data.getLastIp(), data.getLastLogin());
         }
 
-        // Clear cache
-        plugin.getPlayerCache().invalidate(username);
-
-        // Remove from hidden players list if necessary
-        if (plugin.getConfig().getBoolean("security.hide_unauthed_players")) {
-            plugin.getServer().getOnlinePlayers().forEach(p -> p.showPlayer(plugin, player));
-        }
+        // Move to the offline cache and clear auth state, hidden players are shown again by the visibility manager
+        plugin.getPlayerCache().unpin(username);
+        plugin.getAuthStateRegistry().remove(player);
     }
 
     @EventHandler(priority = EventPriority.LOWEST)
@@ -131,7 +89,6 @@ public class AuthListener implements Listener {
     }
 
     private boolean isAuthenticated(Player player) {
-        PlayerData data = plugin.getCachedPlayerData(player.getName().toLowerCase());
-        return data != null && data.isLoggedIn();
+        return plugin.getAuthStateRegistry().isAuthenticated(player);
     }
                 }
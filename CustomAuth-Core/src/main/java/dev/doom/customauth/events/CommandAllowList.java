@@ -0,0 +1,135 @@
+package dev.doom.customauth.events;
+
+import dev.doom.customauth.CustomAuth;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Case-insensitive trie of the commands an unauthenticated player may run.
+ * Built from the plugin.yml entries (names, aliases and their
+ * {@code customauth:} namespaced forms) plus {@code security.allowed_commands},
+ * and matched directly against the chat message without any substring.
+ */
+public class CommandAllowList {
+    private final CustomAuth plugin;
+    private volatile Node root;
+
+    public CommandAllowList(CustomAuth plugin) {
+        this.plugin = plugin;
+        rebuild();
+    }
+
+    /**
+     * Builds a fresh trie and swaps it in, so concurrent lookups always see
+     * either the old or the new list.
+     */
+    public void rebuild() {
+        Set<String> commands = new LinkedHashSet<>();
+        String namespace = plugin.getName().toLowerCase();
+        Map<String, Map<String, Object>> described = plugin.getDescription().getCommands();
+
+        List<String> authCommands = plugin.getConfig().getStringList("security.unauthenticated_commands");
+        if (authCommands.isEmpty()) {
+            // Never lock players out because of an outdated config
+            authCommands = List.of("login", "register");
+        }
+
+        for (String name : authCommands) {
+            Map<String, Object> properties = described.get(name.toLowerCase());
+            if (properties == null) {
+                plugin.getLogger().warning("Unknown command in security.unauthenticated_commands: " + name);
+                continue;
+            }
+
+            Set<String> labels = new LinkedHashSet<>();
+            labels.add(name.toLowerCase());
+            labels.addAll(aliases(properties.get("aliases")));
+            for (String label : labels) {
+                commands.add(label);
+                commands.add(namespace + ":" + label);
+            }
+        }
+
+        for (String extra : plugin.getConfig().getStringList("security.allowed_commands")) {
+            String command = extra.startsWith("/") ? extra.substring(1) : extra;
+            if (!command.isBlank()) {
+                commands.add(command.trim().toLowerCase());
+            }
+        }
+
+        Node built = new Node();
+        for (String command : commands) {
+            built.insert(command);
+        }
+        this.root = built;
+    }
+
+    private static Collection<String> aliases(Object value) {
+        if (value instanceof String alias) {
+            return List.of(alias.toLowerCase());
+        }
+        if (value instanceof List<?> list) {
+            return list.stream().map(alias -> String.valueOf(alias).toLowerCase()).toList();
+        }
+        return List.of();
+    }
+
+    /**
+     * @param message Raw command message including the leading slash
+     * @return true if the command label is on the allow list
+     */
+    public boolean matches(String message) {
+        Node node = root;
+        int length = message.length();
+        int start = length > 0 && message.charAt(0) == '/' ? 1 : 0;
+
+        for (int i = start; i < length; i++) {
+            char c = message.charAt(i);
+            if (c == ' ') {
+                break;
+            }
+            node = node.child(Character.toLowerCase(c));
+            if (node == null) {
+                return false;
+            }
+        }
+        return node.terminal;
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private boolean terminal;
+
+        private Node child(char key) {
+            char[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private void insert(String command) {
+            Node node = this;
+            for (int i = 0; i < command.length(); i++) {
+                char c = command.charAt(i);
+                Node next = node.child(c);
+                if (next == null) {
+                    next = new Node();
+                    node.keys = Arrays.copyOf(node.keys, node.keys.length + 1);
+                    node.children = Arrays.copyOf(node.children, node.children.length + 1);
+                    node.keys[node.keys.length - 1] = c;
+                    node.children[node.children.length - 1] = next;
+                }
+                node = next;
+            }
+            node.terminal = true;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package dev.doom.customauth.events;
+
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.session.AuthStateListener;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.attribute.AttributeModifier;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerMoveEvent;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pins unauthenticated players with zero walk/fly speed and zero jump
+ * strength, so the client stops moving on its own. Move events then only need
+ * a cheap drift check against a cached anchor instead of a correction per
+ * packet.
+ */
+public class MovementFreezer implements AuthStateListener {
+    private static final float DEFAULT_WALK_SPEED = 0.2f;
+    private static final float DEFAULT_FLY_SPEED = 0.1f;
+
+    private final CustomAuth plugin;
+    // Multiplies jump strength by (1 + -1), i.e. sets it to 0
+    private final NamespacedKey jumpKey;
+    private final AttributeModifier noJump;
+    private final Map<UUID, FreezeState> frozen;
+    private final AtomicLong corrections = new AtomicLong();
+    private boolean enabled;
+    private double maxDriftSquared;
+    private int checkInterval;
+
+    public MovementFreezer(CustomAuth plugin) {
+        this.plugin = plugin;
+        this.frozen = new ConcurrentHashMap<>();
+        this.jumpKey = new NamespacedKey(plugin, "freeze_jump");
+        this.noJump = new AttributeModifier(jumpKey, -1, AttributeModifier.Operation.MULTIPLY_SCALAR_1);
+        loadConfig();
+    }
+
+    public void loadConfig() {
+        this.enabled = plugin.getConfig().getBoolean("security.freeze.enabled", true);
+        if (!enabled) {
+            // Turned off by a reload, nobody may stay frozen until they log in
+            for (UUID uuid : frozen.keySet()) {
+                Player player = plugin.getServer().getPlayer(uuid);
+                if (player != null) {
+                    plugin.getTaskScheduler().runOnEntity(player, () -> release(player));
+                }
+            }
+        }
+        double maxDrift = plugin.getConfig().getDouble("security.freeze.max_drift", 0.5);
+        this.maxDriftSquared = maxDrift * maxDrift;
+        this.checkInterval = Math.max(1, plugin.getConfig().getInt("security.freeze.check_interval", 20));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void onPending(Player player) {
+        if (enabled) {
+            plugin.getTaskScheduler().runOnEntity(player, () -> freeze(player));
+        }
+    }
+
+    @Override
+    public void onAuthenticated(Player player) {
+        if (frozen.containsKey(player.getUniqueId())) {
+            plugin.getTaskScheduler().runOnEntity(player, () -> release(player));
+        }
+    }
+
+    @Override
+    public void onRemoved(Player player) {
+        // Walk and fly speed are saved with the player, never let them persist as 0
+        release(player);
+    }
+
+    private void freeze(Player player) {
+        if (!player.isOnline() || !plugin.getAuthStateRegistry().isPending(player.getUniqueId())) {
+            return;
+        }
+
+        // A crash while frozen leaves a speed of 0 in the player file
+        float walkSpeed = player.getWalkSpeed() > 0 ? player.getWalkSpeed() : DEFAULT_WALK_SPEED;
+        float flySpeed = player.getFlySpeed() > 0 ? player.getFlySpeed() : DEFAULT_FLY_SPEED;
+
+        FreezeState state = new FreezeState(walkSpeed, flySpeed);
+        state.setAnchor(player.getLocation());
+        if (frozen.putIfAbsent(player.getUniqueId(), state) != null) {
+            return;
+        }
+
+        player.setWalkSpeed(0f);
+        player.setFlySpeed(0f);
+        AttributeInstance jump = player.getAttribute(Attribute.JUMP_STRENGTH);
+        if (jump != null) {
+            jump.removeModifier(jumpKey);
+            // Transient, so it is never saved with the player
+            jump.addTransientModifier(noJump);
+        }
+    }
+
+    private void release(Player player) {
+        FreezeState state = frozen.remove(player.getUniqueId());
+        if (state == null) {
+            return;
+        }
+
+        player.setWalkSpeed(state.walkSpeed);
+        player.setFlySpeed(state.flySpeed);
+        removeJumpModifier(player);
+    }
+
+    /**
+     * Releases every frozen player, called when the plugin is disabled.
+     */
+    public void releaseAll() {
+        for (UUID uuid : frozen.keySet()) {
+            Player player = plugin.getServer().getPlayer(uuid);
+            if (player != null) {
+                release(player);
+            } else {
+                frozen.remove(uuid);
+            }
+        }
+    }
+
+    /**
+     * Removes a jump modifier left over from a crash or from an older version
+     * that saved it, before the player is frozen again or let in.
+     */
+    public void clearLeftover(Player player) {
+        if (!frozen.containsKey(player.getUniqueId())) {
+            removeJumpModifier(player);
+        }
+    }
+
+    private void removeJumpModifier(Player player) {
+        AttributeInstance jump = player.getAttribute(Attribute.JUMP_STRENGTH);
+        if (jump != null) {
+            jump.removeModifier(jumpKey);
+        }
+    }
+
+    /**
+     * Plugin teleports (e.g. spawn on join) move the anchor with the player.
+     */
+    public void updateAnchor(Player player, Location location) {
+        FreezeState state = frozen.get(player.getUniqueId());
+        if (state != null && location != null) {
+            state.setAnchor(location);
+        }
+    }
+
+    public void handleMove(PlayerMoveEvent event) {
+        FreezeState state = frozen.get(event.getPlayer().getUniqueId());
+        if (state == null) {
+            // Freeze not applied yet, fall back to a hard correction
+            event.setTo(event.getFrom());
+            return;
+        }
+
+        Location to = event.getTo();
+        double dx = to.getX() - state.x;
+        double dy = to.getY() - state.y;
+        double dz = to.getZ() - state.z;
+        boolean drifted = dx * dx + dy * dy + dz * dz > maxDriftSquared;
+
+        // Full validation only every few ticks unless the player drifted off
+        int tick = plugin.getServer().getCurrentTick();
+        if (!drifted) {
+            if (tick - state.lastCheckTick < checkInterval) {
+                return;
+            }
+            state.lastCheckTick = tick;
+            drifted = to.getWorld() != state.world ||
+                      to.getBlockX() != state.blockX ||
+                      to.getBlockY() != state.blockY ||
+                      to.getBlockZ() != state.blockZ;
+            if (!drifted) {
+                return;
+            }
+        }
+
+        Location anchor = new Location(state.world, state.x, state.y, state.z, to.getYaw(), to.getPitch());
+        if (!plugin.getConfig().getBoolean("security.allow_pitch_yaw_movement")) {
+            anchor.setYaw(event.getFrom().getYaw());
+            anchor.setPitch(event.getFrom().getPitch());
+        }
+        event.setTo(anchor);
+        state.lastCheckTick = tick;
+        corrections.incrementAndGet();
+    }
+
+    public int getFrozenCount() {
+        return frozen.size();
+    }
+
+    public long getCorrections() {
+        return corrections.get();
+    }
+
+    private static final class FreezeState {
+        private final float walkSpeed;
+        private final float flySpeed;
+        private volatile World world;
+        private volatile double x;
+        private volatile double y;
+        private volatile double z;
+        private volatile int blockX;
+        private volatile int blockY;
+        private volatile int blockZ;
+        private int lastCheckTick;
+
+        private FreezeState(float walkSpeed, float flySpeed) {
+            this.walkSpeed = walkSpeed;
+            this.flySpeed = flySpeed;
+        }
+
+        private void setAnchor(Location location) {
+            this.world = location.getWorld();
+            this.x = location.getX();
+            this.y = location.getY();
+            this.z = location.getZ();
+            this.blockX = location.getBlockX();
+            this.blockY = location.getBlockY();
+            this.blockZ = location.getBlockZ();
+        }
+    }
+}
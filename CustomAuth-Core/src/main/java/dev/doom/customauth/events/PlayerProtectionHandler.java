@@ -3,14 +3,16 @@ package dev.doom.customauth.events;
 
 import dev.doom.customauth.CustomAuth;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.*;
 import org.bukkit.event.entity.*;
 import org.bukkit.event.inventory.*;
 import org.bukkit.event.player.*;
 
+/**
+ * Blocks actions of players that have not logged in yet. Registered on demand
+ * by the {@link ProtectionGate}, see {@link ProtectedEvent} for the mapping.
+ */
 public class PlayerProtectionHandler implements Listener {
     private final CustomAuth plugin;
 
@@ -18,10 +20,12 @@ public class PlayerProtectionHandler implements Listener {
         this.plugin = plugin;
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerMove(PlayerMoveEvent event) {
         if (!isAuthenticated(event.getPlayer())) {
-            if (plugin.getConfig().getBoolean("security.allow_pitch_yaw_movement")) {
+            if (plugin.getMovementFreezer().isEnabled()) {
+                // Frozen players barely move; only check drift against the anchor
+                plugin.getMovementFreezer().handleMove(event);
+            } else if (plugin.getConfig().getBoolean("security.allow_pitch_yaw_movement")) {
                 // Only block position changes
                 if (event.getTo().getBlockX() != event.getFrom().getBlockX() ||
                     event.getTo().getBlockY() != event.getFrom().getBlockY() ||
@@ -34,7 +38,6 @@ public class PlayerProtectionHandler implements Listener {
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerChat(AsyncPlayerChatEvent event) {
         if (!isAuthenticated(event.getPlayer())) {
             event.setCancelled(true);
@@ -42,32 +45,26 @@ public class PlayerProtectionHandler implements Listener {
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
-        if (!isAuthenticated(event.getPlayer())) {
-            String command = event.getMessage().split(" ")[0].toLowerCase();
-            if (!isAllowedCommand(command)) {
-                event.setCancelled(true);
-                event.getPlayer().sendMessage(plugin.getLanguageManager().getMessage("security.must_login"));
-            }
+        if (!isAuthenticated(event.getPlayer()) &&
+            !plugin.getCommandAllowList().matches(event.getMessage())) {
+            event.setCancelled(true);
+            event.getPlayer().sendMessage(plugin.getLanguageManager().getMessage("security.must_login"));
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerInteract(PlayerInteractEvent event) {
         if (!isAuthenticated(event.getPlayer())) {
             event.setCancelled(true);
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerInteractEntity(PlayerInteractEntityEvent event) {
         if (!isAuthenticated(event.getPlayer())) {
             event.setCancelled(true);
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onInventoryClick(InventoryClickEvent event) {
         if (event.getWhoClicked() instanceof Player &&
             !isAuthenticated((Player) event.getWhoClicked())) {
@@ -75,7 +72,6 @@ public class PlayerProtectionHandler implements Listener {
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onInventoryDrag(InventoryDragEvent event) {
         if (event.getWhoClicked() instanceof Player &&
             !isAuthenticated((Player) event.getWhoClicked())) {
@@ -83,14 +79,12 @@ public class PlayerProtectionHandler implements Listener {
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onItemDrop(PlayerDropItemEvent event) {
         if (!isAuthenticated(event.getPlayer())) {
             event.setCancelled(true);
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onItemPickup(EntityPickupItemEvent event) {
         if (event.getEntity() instanceof Player &&
             !isAuthenticated((Player) event.getEntity())) {
@@ -98,7 +92,6 @@ public class PlayerProtectionHandler implements Listener {
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onEntityDamage(EntityDamageEvent event) {
         if (event.getEntity() instanceof Player &&
             !isAuthenticated((Player) event.getEntity())) {
@@ -106,7 +99,6 @@ public class PlayerProtectionHandler implements Listener {
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
         if (event.getDamager() instanceof Player &&
             !isAuthenticated((Player) event.getDamager())) {
@@ -114,7 +106,6 @@ public class PlayerProtectionHandler implements Listener {
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onFoodLevelChange(FoodLevelChangeEvent event) {
         if (event.getEntity() instanceof Player &&
             !isAuthenticated((Player) event.getEntity())) {
@@ -122,36 +113,36 @@ public class PlayerProtectionHandler implements Listener {
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onBlockBreak(BlockBreakEvent event) {
         if (!isAuthenticated(event.getPlayer())) {
             event.setCancelled(true);
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onBlockPlace(BlockPlaceEvent event) {
         if (!isAuthenticated(event.getPlayer())) {
             event.setCancelled(true);
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerPortal(PlayerPortalEvent event) {
         if (!isAuthenticated(event.getPlayer())) {
             event.setCancelled(true);
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerTeleport(PlayerTeleportEvent event) {
-        if (!isAuthenticated(event.getPlayer()) && 
-            event.getCause() != PlayerTeleportEvent.TeleportCause.PLUGIN) {
+        if (isAuthenticated(event.getPlayer())) {
+            return;
+        }
+
+        if (event.getCause() != PlayerTeleportEvent.TeleportCause.PLUGIN) {
             event.setCancelled(true);
+        } else {
+            plugin.getMovementFreezer().updateAnchor(event.getPlayer(), event.getTo());
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerGameModeChange(PlayerGameModeChangeEvent event) {
         if (!isAuthenticated(event.getPlayer())) {
             event.setCancelled(true);
@@ -159,14 +150,6 @@ public class PlayerProtectionHandler implements Listener {
     }
 
     private boolean isAuthenticated(Player player) {
-        return plugin.getCachedPlayerData(player.getName().toLowerCase()) != null &&
-               plugin.getCachedPlayerData(player.getName().toLowerCase()).isLoggedIn();
-    }
-
-    private boolean isAllowedCommand(String command) {
-        return command.equals("/login") ||
-               command.equals("/register") ||
-               command.equals("/l") ||
-               command.equals("/reg");
+        return plugin.getAuthStateRegistry().isAuthenticated(player);
     }
     }
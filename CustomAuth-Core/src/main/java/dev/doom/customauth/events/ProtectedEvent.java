@@ -0,0 +1,63 @@
+package dev.doom.customauth.events;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.FoodLevelChangeEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Events the {@link ProtectionGate} can block for unauthenticated players,
+ * keyed by the names used in {@code security.protected_events}.
+ */
+public enum ProtectedEvent {
+    MOVE(PlayerMoveEvent.class, (h, e) -> h.onPlayerMove((PlayerMoveEvent) e)),
+    CHAT(AsyncPlayerChatEvent.class, (h, e) -> h.onPlayerChat((AsyncPlayerChatEvent) e)),
+    COMMAND(PlayerCommandPreprocessEvent.class, (h, e) -> h.onPlayerCommand((PlayerCommandPreprocessEvent) e)),
+    INTERACT(PlayerInteractEvent.class, (h, e) -> h.onPlayerInteract((PlayerInteractEvent) e)),
+    INTERACT_ENTITY(PlayerInteractEntityEvent.class, (h, e) -> h.onPlayerInteractEntity((PlayerInteractEntityEvent) e)),
+    INVENTORY_CLICK(InventoryClickEvent.class, (h, e) -> h.onInventoryClick((InventoryClickEvent) e)),
+    INVENTORY_DRAG(InventoryDragEvent.class, (h, e) -> h.onInventoryDrag((InventoryDragEvent) e)),
+    ITEM_DROP(PlayerDropItemEvent.class, (h, e) -> h.onItemDrop((PlayerDropItemEvent) e)),
+    ITEM_PICKUP(EntityPickupItemEvent.class, (h, e) -> h.onItemPickup((EntityPickupItemEvent) e)),
+    DAMAGE(EntityDamageEvent.class, (h, e) -> h.onEntityDamage((EntityDamageEvent) e)),
+    DAMAGE_BY_ENTITY(EntityDamageByEntityEvent.class, (h, e) -> h.onEntityDamageByEntity((EntityDamageByEntityEvent) e)),
+    FOOD_LEVEL(FoodLevelChangeEvent.class, (h, e) -> h.onFoodLevelChange((FoodLevelChangeEvent) e)),
+    BLOCK_BREAK(BlockBreakEvent.class, (h, e) -> h.onBlockBreak((BlockBreakEvent) e)),
+    BLOCK_PLACE(BlockPlaceEvent.class, (h, e) -> h.onBlockPlace((BlockPlaceEvent) e)),
+    PORTAL(PlayerPortalEvent.class, (h, e) -> h.onPlayerPortal((PlayerPortalEvent) e)),
+    TELEPORT(PlayerTeleportEvent.class, (h, e) -> h.onPlayerTeleport((PlayerTeleportEvent) e)),
+    GAMEMODE_CHANGE(PlayerGameModeChangeEvent.class, (h, e) -> h.onPlayerGameModeChange((PlayerGameModeChangeEvent) e));
+
+    private final Class<? extends Event> eventClass;
+    private final BiConsumer<PlayerProtectionHandler, Event> dispatcher;
+
+    ProtectedEvent(Class<? extends Event> eventClass, BiConsumer<PlayerProtectionHandler, Event> dispatcher) {
+        this.eventClass = eventClass;
+        this.dispatcher = dispatcher;
+    }
+
+    public Class<? extends Event> getEventClass() {
+        return eventClass;
+    }
+
+    /**
+     * Handler lists can be shared with subclasses (damage-by-entity uses the
+     * damage list), so filter like Bukkit's reflective executor does.
+     */
+    public void dispatch(PlayerProtectionHandler handler, Event event) {
+        if (eventClass.isInstance(event)) {
+            dispatcher.accept(handler, event);
+        }
+    }
+
+    public String getConfigName() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,109 @@
+package dev.doom.customauth.events;
+
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.session.AuthStateListener;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the {@link PlayerProtectionHandler} registered only while at least one
+ * online player still has to log in. With everybody authenticated the server
+ * pays nothing for move, chat, block or inventory events.
+ */
+public class ProtectionGate implements AuthStateListener {
+    private final CustomAuth plugin;
+    private final PlayerProtectionHandler handler;
+    private Set<ProtectedEvent> protectedEvents;
+    private boolean registered;
+
+    public ProtectionGate(CustomAuth plugin, PlayerProtectionHandler handler) {
+        this.plugin = plugin;
+        this.handler = handler;
+        this.protectedEvents = loadProtectedEvents();
+    }
+
+    private Set<ProtectedEvent> loadProtectedEvents() {
+        List<String> configured = plugin.getConfig().getStringList("security.protected_events");
+        if (configured.isEmpty()) {
+            return EnumSet.allOf(ProtectedEvent.class);
+        }
+
+        Set<ProtectedEvent> events = EnumSet.noneOf(ProtectedEvent.class);
+        for (String name : configured) {
+            try {
+                events.add(ProtectedEvent.valueOf(name.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Unknown protected event in config: " + name);
+            }
+        }
+        return events;
+    }
+
+    @Override
+    public void onPending(Player player) {
+        update();
+    }
+
+    @Override
+    public void onAuthenticated(Player player) {
+        update();
+    }
+
+    @Override
+    public void onRemoved(Player player) {
+        update();
+    }
+
+    /**
+     * Registers or unregisters the handlers to match the number of players
+     * still waiting to log in.
+     */
+    public synchronized void update() {
+        boolean needed = plugin.getAuthStateRegistry().getPendingCount() > 0;
+        if (needed && !registered) {
+            register();
+        } else if (!needed && registered) {
+            unregister();
+        }
+    }
+
+    public synchronized void reload() {
+        this.protectedEvents = loadProtectedEvents();
+        if (registered) {
+            unregister();
+            register();
+        }
+    }
+
+    private void register() {
+        for (ProtectedEvent type : protectedEvents) {
+            plugin.getServer().getPluginManager().registerEvent(
+                type.getEventClass(),
+                handler,
+                EventPriority.LOWEST,
+                (listener, event) -> type.dispatch(handler, event),
+                plugin
+            );
+        }
+        registered = true;
+    }
+
+    private void unregister() {
+        HandlerList.unregisterAll(handler);
+        registered = false;
+    }
+
+    public synchronized void shutdown() {
+        if (registered) {
+            unregister();
+        }
+    }
+
+    public synchronized boolean isRegistered() {
+        return registered;
+    }
+}
@@ -0,0 +1,155 @@
+package dev.doom.customauth.events;
+
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.session.AuthStateListener;
+import org.bukkit.entity.Player;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Applies {@code security.hide_unauthed_players} in per-tick batches. Hide/show
+ * transitions are coalesced per target and every viewer gets a single task
+ * per tick on its own thread, instead of an O(N) loop per join and quit.
+ */
+public class VisibilityManager implements AuthStateListener {
+    private final CustomAuth plugin;
+    private final Set<UUID> hidden;
+    private final Map<UUID, Transition> pending;
+    private final Queue<Player> newViewers;
+    private boolean enabled;
+    private int batchSize;
+
+    public VisibilityManager(CustomAuth plugin) {
+        this.plugin = plugin;
+        this.hidden = ConcurrentHashMap.newKeySet();
+        this.pending = new ConcurrentHashMap<>();
+        this.newViewers = new ConcurrentLinkedQueue<>();
+        loadConfig();
+        startTicker();
+    }
+
+    public void loadConfig() {
+        this.enabled = plugin.getConfig().getBoolean("security.hide_unauthed_players");
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("performance.visibility_batch_size", 100));
+    }
+
+    private void startTicker() {
+        plugin.getTaskScheduler().runGlobalTimer(this::tick, 1L, 1L);
+    }
+
+    @Override
+    public void onPending(Player player) {
+        if (enabled && hidden.add(player.getUniqueId())) {
+            pending.put(player.getUniqueId(), new Transition(player, true));
+        }
+    }
+
+    @Override
+    public void onAuthenticated(Player player) {
+        if (hidden.remove(player.getUniqueId())) {
+            pending.put(player.getUniqueId(), new Transition(player, false));
+        }
+    }
+
+    @Override
+    public void onRemoved(Player player) {
+        // Viewers remember hidden players by UUID, so undo the hide on quit as well
+        onAuthenticated(player);
+    }
+
+    /**
+     * A player joined, hide everybody that is currently waiting to log in from them.
+     */
+    public void addViewer(Player viewer) {
+        if (enabled || !hidden.isEmpty()) {
+            newViewers.offer(viewer);
+        }
+    }
+
+    private void tick() {
+        if (pending.isEmpty() && newViewers.isEmpty()) {
+            return;
+        }
+
+        // Coalesced transitions, bounded per tick so join waves spread out
+        List<Transition> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        Iterator<Map.Entry<UUID, Transition>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            Map.Entry<UUID, Transition> entry = iterator.next();
+            // A newer transition stored since next() stays queued for the following tick
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.add(entry.getValue());
+            }
+        }
+
+        List<Player> joined = new ArrayList<>();
+        Player viewer;
+        while (joined.size() < batchSize && (viewer = newViewers.poll()) != null) {
+            joined.add(viewer);
+        }
+
+        if (!batch.isEmpty()) {
+            for (Player online : plugin.getServer().getOnlinePlayers()) {
+                plugin.getTaskScheduler().runOnEntity(online, () -> apply(online, batch));
+            }
+        }
+
+        if (!joined.isEmpty()) {
+            List<Player> hiddenPlayers = new ArrayList<>();
+            for (UUID uuid : hidden) {
+                Player target = plugin.getServer().getPlayer(uuid);
+                if (target != null) {
+                    hiddenPlayers.add(target);
+                }
+            }
+            for (Player newViewer : joined) {
+                plugin.getTaskScheduler().runOnEntity(newViewer, () -> hideAll(newViewer, hiddenPlayers));
+            }
+        }
+    }
+
+    private void apply(Player viewer, List<Transition> batch) {
+        if (!viewer.isOnline()) {
+            return;
+        }
+        for (Transition transition : batch) {
+            if (transition.target() == viewer) {
+                continue;
+            }
+            if (transition.hide()) {
+                viewer.hidePlayer(plugin, transition.target());
+            } else {
+                viewer.showPlayer(plugin, transition.target());
+            }
+        }
+    }
+
+    private void hideAll(Player viewer, List<Player> targets) {
+        if (!viewer.isOnline()) {
+            return;
+        }
+        for (Player target : targets) {
+            // Re-check, the target may have logged in since the snapshot
+            if (target != viewer && hidden.contains(target.getUniqueId())) {
+                viewer.hidePlayer(plugin, target);
+            }
+        }
+    }
+
+    public int getHiddenCount() {
+        return hidden.size();
+    }
+
+    public int getQueuedTransitions() {
+        return pending.size() + newViewers.size();
+    }
+
+    private record Transition(Player target, boolean hide) {}
+}
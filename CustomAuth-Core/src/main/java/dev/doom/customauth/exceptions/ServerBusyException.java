@@ -0,0 +1,14 @@
+package dev.doom.customauth.exceptions;
+
+public class ServerBusyException extends AuthException {
+    private final int retryAfterSeconds;
+
+    public ServerBusyException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -33,14 +33,14 @@ public class MetricsHandler {
     private void setupCharts() {
         // Storage type chart
         metrics.addCustomChart(new SimplePie("storage_type", () -> 
-            plugin.getConfig().getBoolean("mysql.enabled") ? "MySQL" : "File"));
+            plugin.getDatabase() != null ? plugin.getDatabase().getDialect().getName() : "File"));
 
         // Authentication method chart
         metrics.addCustomChart(new DrilldownPie("auth_methods", () -> {
             Map<String, Map<String, Integer>> map = new HashMap<>();
             Map<String, Integer> entry = new HashMap<>();
             
-            int javaPlayers = plugin.getPlayerCache().asMap().size() - 
+            int javaPlayers = plugin.getPlayerCache().getOnlineSize() - 
                              plugin.getBedrockAuthHandler().getActiveBedrockPlayers();
             int bedrockPlayers = plugin.getBedrockAuthHandler().getActiveBedrockPlayers();
             
@@ -72,6 +72,10 @@ public class MetricsHandler {
         metrics.addCustomChart(new SingleLineChart("failed_attempts", 
             failedAttemptsToday::get));
 
+        // Player cache hit rate in percent
+        metrics.addCustomChart(new SingleLineChart("player_cache_hit_rate", () ->
+            (int) Math.round(plugin.getPlayerCache().getHitRate() * 100)));
+
         // Server type chart
         metrics.addCustomChart(new SimplePie("server_type", () ->
             plugin.isFolia() ? "Folia" : "Paper"));
@@ -0,0 +1,58 @@
+// dev/doom/customauth/models/AccountLookup.java
+package dev.doom.customauth.models;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Result of looking up an account: absent, present with its data, or a
+ * storage error. Errors are kept apart from "not registered" so a database
+ * hiccup never lets someone register over an existing account.
+ */
+public record AccountLookup(
+    Status status,
+    PlayerData playerData,
+    Throwable error
+) {
+    private static final AccountLookup ABSENT = new AccountLookup(Status.ABSENT, null, null);
+
+    public enum Status {
+        ABSENT,
+        PRESENT,
+        ERROR
+    }
+
+    public static AccountLookup absent() {
+        return ABSENT;
+    }
+
+    public static AccountLookup present(PlayerData data) {
+        return new AccountLookup(Status.PRESENT, data, null);
+    }
+
+    public static AccountLookup error(Throwable error) {
+        return new AccountLookup(Status.ERROR, null, error);
+    }
+
+    public boolean isPresent() {
+        return status == Status.PRESENT;
+    }
+
+    public boolean isAbsent() {
+        return status == Status.ABSENT;
+    }
+
+    public boolean isError() {
+        return status == Status.ERROR;
+    }
+
+    /**
+     * @return The account data, null if absent
+     * @throws CompletionException if the lookup failed
+     */
+    public PlayerData orNull() {
+        if (status == Status.ERROR) {
+            throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+        }
+        return playerData;
+    }
+}
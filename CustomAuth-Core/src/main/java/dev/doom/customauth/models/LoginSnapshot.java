@@ -0,0 +1,17 @@
+// dev/doom/customauth/models/LoginSnapshot.java
+package dev.doom.customauth.models;
+
+/**
+ * Everything the join handler needs to decide how to greet a player,
+ * loaded while the connection is still in pre-login.
+ */
+public record LoginSnapshot(
+    String username,
+    PlayerData playerData,
+    SessionData session,
+    long loadedAt
+) {
+    public boolean isRegistered() {
+        return playerData != null;
+    }
+}
@@ -0,0 +1,61 @@
+package dev.doom.customauth.scheduler;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps how many tasks of one kind run at once on a shared executor, e.g. so
+ * mail never opens more SMTP connections than the server allows. On virtual
+ * threads waiting for a permit only parks the virtual thread.
+ * <p>
+ * A permit does not stop a task from pinning its carrier: JDBC drivers block
+ * inside synchronized code, so database work runs on its own platform pool
+ * instead and this only counts it.
+ */
+public class BoundedExecutor implements Executor {
+    private final Executor delegate;
+    private final Semaphore permits;
+    private final int limit;
+    // Submitted but not running yet, whether queued in the delegate or for a permit
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public BoundedExecutor(Executor delegate, int limit) {
+        this.delegate = delegate;
+        this.limit = Math.max(1, limit);
+        this.permits = new Semaphore(this.limit, true);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        waiting.incrementAndGet();
+        try {
+            delegate.execute(() -> run(task));
+        } catch (RuntimeException e) {
+            waiting.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void run(Runnable task) {
+        permits.acquireUninterruptibly();
+        waiting.decrementAndGet();
+        try {
+            task.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getActive() {
+        return limit - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+}
@@ -0,0 +1,11 @@
+package dev.doom.customauth.scheduler;
+
+/**
+ * Server independent handle to a scheduled task.
+ */
+@FunctionalInterface
+public interface TaskHandle {
+    TaskHandle NONE = () -> {};
+
+    void cancel();
+}
@@ -0,0 +1,159 @@
+package dev.doom.customauth.scheduler;
+
+import dev.doom.customauth.CustomAuth;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.scheduler.BukkitTask;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * One place that knows how to run work on Folia and Paper.
+ * <ul>
+ *   <li>{@link #runOnEntity} - touches a player (kick, teleport, visibility)</li>
+ *   <li>{@link #runOnRegion} - touches blocks or entities around a location</li>
+ *   <li>{@link #runGlobalTimer} - small per-tick bookkeeping with no blocking calls</li>
+ *   <li>{@link #runAsync} / {@link #runTimerAsync} - anything that blocks (database, files, mail)</li>
+ * </ul>
+ * Blocking work must only ever go through the async methods, on Folia the
+ * global region thread is a tick thread just like the main thread on Paper.
+ */
+public class TaskScheduler {
+    private static final long MILLIS_PER_TICK = 50L;
+
+    private final CustomAuth plugin;
+    private final Map<Kind, TaskStats> stats;
+
+    public TaskScheduler(CustomAuth plugin) {
+        this.plugin = plugin;
+        this.stats = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            stats.put(kind, new TaskStats());
+        }
+    }
+
+    /**
+     * Runs the task on the thread that owns the entity, inline if we are
+     * already on it. Dropped silently if the entity is gone by then.
+     */
+    public void runOnEntity(Entity entity, Runnable task) {
+        if (plugin.getServer().isOwnedByCurrentRegion(entity)) {
+            track(Kind.ENTITY, task, false).run();
+            return;
+        }
+
+        Runnable tracked = track(Kind.ENTITY, task, true);
+        if (plugin.isFolia()) {
+            entity.getScheduler().run(plugin, scheduledTask -> tracked.run(), null);
+        } else {
+            plugin.getServer().getScheduler().runTask(plugin, tracked);
+        }
+    }
+
+    public TaskHandle runOnEntityLater(Entity entity, Runnable task, long delayTicks) {
+        Runnable tracked = track(Kind.ENTITY, task, true);
+        if (plugin.isFolia()) {
+            var scheduled = entity.getScheduler().runDelayed(plugin,
+                scheduledTask -> tracked.run(), null, Math.max(1L, delayTicks));
+            return scheduled != null ? scheduled::cancel : TaskHandle.NONE;
+        }
+        BukkitTask scheduled = plugin.getServer().getScheduler().runTaskLater(plugin, tracked, delayTicks);
+        return scheduled::cancel;
+    }
+
+    public void runOnRegion(Location location, Runnable task) {
+        if (plugin.getServer().isOwnedByCurrentRegion(location)) {
+            track(Kind.REGION, task, false).run();
+            return;
+        }
+
+        Runnable tracked = track(Kind.REGION, task, true);
+        if (plugin.isFolia()) {
+            plugin.getServer().getRegionScheduler().execute(plugin, location, tracked);
+        } else {
+            plugin.getServer().getScheduler().runTask(plugin, tracked);
+        }
+    }
+
+    /**
+     * Repeating task on the global region (Folia) or main thread (Paper).
+     * Only for cheap work that has to run in step with the server tick.
+     */
+    public TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        Runnable tracked = trackRepeating(Kind.GLOBAL, task);
+        if (plugin.isFolia()) {
+            var scheduled = plugin.getServer().getGlobalRegionScheduler().runAtFixedRate(plugin,
+                scheduledTask -> tracked.run(), Math.max(1L, delayTicks), periodTicks);
+            return scheduled::cancel;
+        }
+        BukkitTask scheduled = plugin.getServer().getScheduler().runTaskTimer(plugin, tracked, delayTicks, periodTicks);
+        return scheduled::cancel;
+    }
+
+    /**
+     * Runs blocking work on the plugin's I/O executor (virtual threads unless
+     * {@code performance.executor} is set to platform).
+     */
+    public void runAsync(Runnable task) {
+        plugin.getAsyncExecutor().execute(track(Kind.ASYNC, task, true));
+    }
+
+    public TaskHandle runTimerAsync(Runnable task, long delayTicks, long periodTicks) {
+        Runnable tracked = trackRepeating(Kind.ASYNC, task);
+        if (plugin.isFolia()) {
+            var scheduled = plugin.getServer().getAsyncScheduler().runAtFixedRate(plugin,
+                scheduledTask -> tracked.run(),
+                Math.max(1L, delayTicks) * MILLIS_PER_TICK, periodTicks * MILLIS_PER_TICK, TimeUnit.MILLISECONDS);
+            return scheduled::cancel;
+        }
+        BukkitTask scheduled = plugin.getServer().getScheduler()
+            .runTaskTimerAsynchronously(plugin, tracked, delayTicks, periodTicks);
+        return scheduled::cancel;
+    }
+
+    private Runnable track(Kind kind, Runnable task, boolean queued) {
+        TaskStats taskStats = stats.get(kind);
+        taskStats.submitted();
+        long submittedAt = System.nanoTime();
+        return () -> {
+            long start = System.nanoTime();
+            if (queued) {
+                taskStats.started(start - submittedAt);
+            }
+            execute(kind, task, taskStats, start);
+        };
+    }
+
+    private Runnable trackRepeating(Kind kind, Runnable task) {
+        TaskStats taskStats = stats.get(kind);
+        return () -> {
+            taskStats.submitted();
+            execute(kind, task, taskStats, System.nanoTime());
+        };
+    }
+
+    private void execute(Kind kind, Runnable task, TaskStats taskStats, long start) {
+        boolean success = false;
+        try {
+            task.run();
+            success = true;
+        } catch (Throwable t) {
+            plugin.getLogger().log(Level.SEVERE, "Unhandled error in " + kind.name().toLowerCase() + " task", t);
+        } finally {
+            taskStats.finished(System.nanoTime() - start, success);
+        }
+    }
+
+    public TaskStats getStats(Kind kind) {
+        return stats.get(kind);
+    }
+
+    public enum Kind {
+        ENTITY,
+        REGION,
+        GLOBAL,
+        ASYNC
+    }
+}
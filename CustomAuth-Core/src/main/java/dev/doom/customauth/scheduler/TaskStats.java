@@ -0,0 +1,60 @@
+package dev.doom.customauth.scheduler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one kind of scheduled work. Delay is the time a one-shot task
+ * waited between submission and start, runtime is the time it held its thread.
+ */
+public class TaskStats {
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder totalDelayNanos = new LongAdder();
+    private final LongAdder totalRunNanos = new LongAdder();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    void submitted() {
+        submitted.increment();
+    }
+
+    void started(long delayNanos) {
+        delayed.increment();
+        totalDelayNanos.add(delayNanos);
+    }
+
+    void finished(long runNanos, boolean success) {
+        (success ? completed : failed).increment();
+        totalRunNanos.add(runNanos);
+        maxRunNanos.accumulateAndGet(runNanos, Math::max);
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public double getAverageDelayMillis() {
+        long count = delayed.sum();
+        return count == 0 ? 0 : totalDelayNanos.sum() / (count * 1_000_000.0);
+    }
+
+    public double getAverageRunMillis() {
+        long count = completed.sum() + failed.sum();
+        return count == 0 ? 0 : totalRunNanos.sum() / (count * 1_000_000.0);
+    }
+
+    public long getMaxRunMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxRunNanos.get());
+    }
+}
@@ -0,0 +1,128 @@
+package dev.doom.customauth.security;
+
+import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
+import org.bouncycastle.crypto.params.Argon2Parameters;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Argon2id stored in the PHC string format used by libargon2:
+ * {@code $argon2id$v=19$m=<KiB>,t=<iterations>,p=<parallelism>$<salt>$<hash>}.
+ */
+public class Argon2idHasher implements PasswordHasher {
+    private static final String PREFIX = "$argon2id$";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    private final int memoryKib;
+    private final int iterations;
+    private final int parallelism;
+    private final SecureRandom secureRandom;
+
+    public Argon2idHasher(int memoryKib, int iterations, int parallelism) {
+        this.memoryKib = memoryKib;
+        this.iterations = iterations;
+        this.parallelism = parallelism;
+        this.secureRandom = new SecureRandom();
+    }
+
+    @Override
+    public String getName() {
+        return "argon2id";
+    }
+
+    @Override
+    public boolean matchesFormat(String hashedPassword) {
+        return hashedPassword.startsWith(PREFIX);
+    }
+
+    @Override
+    public int getCost() {
+        return iterations;
+    }
+
+    @Override
+    public PasswordHasher withCost(int cost) {
+        return new Argon2idHasher(memoryKib, cost, parallelism);
+    }
+
+    @Override
+    public int[] getCalibrationCosts() {
+        return new int[] {1, 2, 3, 4, 5, 6, 8, 10};
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        secureRandom.nextBytes(salt);
+        byte[] hash = derive(password, salt, memoryKib, iterations, parallelism, HASH_LENGTH);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return String.format("%sv=%d$m=%d,t=%d,p=%d$%s$%s",
+            PREFIX, Argon2Parameters.ARGON2_VERSION_13, memoryKib, iterations, parallelism,
+            encoder.encodeToString(salt), encoder.encodeToString(hash));
+    }
+
+    @Override
+    public boolean verify(String password, String hashedPassword) {
+        String[] parts = hashedPassword.split("\\$");
+        // ["", "argon2id", "v=19", "m=..,t=..,p=..", salt, hash]
+        if (parts.length != 6) {
+            return false;
+        }
+
+        try {
+            int[] params = parseParameters(parts[3]);
+            byte[] salt = Base64.getDecoder().decode(parts[4]);
+            byte[] expected = Base64.getDecoder().decode(parts[5]);
+            byte[] actual = derive(password, salt, params[0], params[1], params[2], expected.length);
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String hashedPassword) {
+        String[] parts = hashedPassword.split("\\$");
+        try {
+            int[] params = parseParameters(parts[3]);
+            return params[0] < memoryKib || params[1] < iterations || params[2] < parallelism;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    private static int[] parseParameters(String encoded) {
+        int[] params = new int[3];
+        for (String pair : encoded.split(",")) {
+            int value = Integer.parseInt(pair.substring(2));
+            switch (pair.charAt(0)) {
+                case 'm' -> params[0] = value;
+                case 't' -> params[1] = value;
+                case 'p' -> params[2] = value;
+                default -> throw new IllegalArgumentException("Unknown Argon2 parameter: " + pair);
+            }
+        }
+        return params;
+    }
+
+    private static byte[] derive(String password, byte[] salt, int memoryKib, int iterations,
+                                 int parallelism, int length) {
+        Argon2Parameters parameters = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+            .withVersion(Argon2Parameters.ARGON2_VERSION_13)
+            .withMemoryAsKB(memoryKib)
+            .withIterations(iterations)
+            .withParallelism(parallelism)
+            .withSalt(salt)
+            .build();
+
+        Argon2BytesGenerator generator = new Argon2BytesGenerator();
+        generator.init(parameters);
+        byte[] hash = new byte[length];
+        generator.generateBytes(password.getBytes(StandardCharsets.UTF_8), hash);
+        return hash;
+    }
+}
@@ -0,0 +1,62 @@
+package dev.doom.customauth.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * AuthMe's default SHA256 format, {@code $SHA$<salt>$<sha256(sha256(password) + salt)>}.
+ * Only used to verify imported accounts; they are rehashed on their next login.
+ */
+public class AuthMeSha256Hasher implements PasswordHasher {
+    private static final String PREFIX = "$SHA$";
+
+    @Override
+    public String getName() {
+        return "authme-sha256";
+    }
+
+    @Override
+    public boolean matchesFormat(String hashedPassword) {
+        return hashedPassword.startsWith(PREFIX);
+    }
+
+    @Override
+    public boolean canHash() {
+        return false;
+    }
+
+    @Override
+    public String hash(String password) {
+        throw new UnsupportedOperationException("AuthMe SHA256 hashes are verify-only");
+    }
+
+    @Override
+    public boolean verify(String password, String hashedPassword) {
+        String[] parts = hashedPassword.split("\\$");
+        // ["", "SHA", salt, hash]
+        if (parts.length != 4) {
+            return false;
+        }
+
+        String expected = sha256(sha256(password) + parts[2]);
+        return MessageDigest.isEqual(
+            expected.getBytes(StandardCharsets.US_ASCII),
+            parts[3].toLowerCase().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public boolean needsRehash(String hashedPassword) {
+        return true;
+    }
+
+    private static String sha256(String input) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package dev.doom.customauth.security;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+public class BCryptHasher implements PasswordHasher {
+    private final int cost;
+
+    public BCryptHasher(int cost) {
+        this.cost = cost;
+    }
+
+    @Override
+    public String getName() {
+        return "bcrypt";
+    }
+
+    @Override
+    public boolean matchesFormat(String hashedPassword) {
+        return hashedPassword.startsWith("$2a$") ||
+               hashedPassword.startsWith("$2b$") ||
+               hashedPassword.startsWith("$2y$");
+    }
+
+    @Override
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public PasswordHasher withCost(int cost) {
+        return new BCryptHasher(cost);
+    }
+
+    @Override
+    public int[] getCalibrationCosts() {
+        return new int[] {10, 11, 12, 13, 14, 15};
+    }
+
+    @Override
+    public String hash(String password) {
+        return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+    }
+
+    @Override
+    public boolean verify(String password, String hashedPassword) {
+        try {
+            // jBCrypt only understands $2a$; $2b$ and $2y$ (PHP, AuthMe) are the same algorithm
+            return BCrypt.checkpw(password, "$2a$" + hashedPassword.substring(4));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String hashedPassword) {
+        try {
+            return Integer.parseInt(hashedPassword.substring(4, 6)) < cost;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package dev.doom.customauth.security;
+
+import dev.doom.customauth.CustomAuth;
+import org.bukkit.configuration.file.YamlConfiguration;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Benchmarks the target hasher and picks the highest work factor that still
+ * meets the configured p95 latency and login throughput budget.
+ * <p>
+ * Each cost is measured through the {@link HashingService} pool with hashes
+ * arriving at the target login rate, so the p95 includes the time spent
+ * queueing. A cost must also leave the pool some headroom: near full
+ * utilization queues grow without bound on any burst.
+ */
+public class HashCalibrator {
+    private static final String FILE_NAME = "calibration.yml";
+    private static final String BENCHMARK_PASSWORD = "Calibration#Password1";
+    private static final double MAX_UTILIZATION = 0.7;
+    // At least this long at the target rate, so a queue has time to build up
+    private static final long MIN_LOAD_MILLIS = 2000;
+
+    private final CustomAuth plugin;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile CalibrationResult lastResult;
+
+    public HashCalibrator(CustomAuth plugin) {
+        this.plugin = plugin;
+        this.lastResult = loadSaved(plugin);
+    }
+
+    public CompletableFuture<CalibrationResult> calibrate() {
+        if (!running.compareAndSet(false, true)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Calibration is already running"));
+        }
+
+        return CompletableFuture.supplyAsync(this::runCalibration, plugin.getAsyncExecutor())
+            .whenComplete((result, error) -> running.set(false));
+    }
+
+    private CalibrationResult runCalibration() {
+        PasswordHashers hashers = plugin.getSecurityUtils().getPasswordHashers();
+        PasswordHasher target = hashers.getTarget();
+        int[] costs = target.getCalibrationCosts();
+        if (costs.length == 0) {
+            throw new IllegalStateException(target.getName() + " does not support calibration");
+        }
+
+        long latencyBudget = plugin.getConfig().getLong("security.hashing.calibration.target_latency", 150);
+        double throughputBudget = Math.max(0.1, plugin.getConfig().getDouble("security.hashing.calibration.target_throughput", 50));
+        int samples = Math.max(3, plugin.getConfig().getInt("security.hashing.calibration.samples", 10));
+        CalibrationResult best = null;
+        CalibrationResult cheapest = null;
+        for (int cost : costs) {
+            CalibrationResult result = benchmark(target.getName(), target.withCost(cost), cost,
+                throughputBudget, samples);
+            if (cheapest == null) {
+                cheapest = result;
+            }
+
+            if (result == null || result.p95Millis() > latencyBudget
+                    || result.capacityPerSecond() * MAX_UTILIZATION < throughputBudget) {
+                // Costs are ordered cheapest first, anything higher will only be slower
+                break;
+            }
+            best = result;
+        }
+
+        if (best == null) {
+            plugin.getLogger().warning("No " + target.getName() + " cost meets the latency budget of " +
+                latencyBudget + "ms at " + throughputBudget + " logins/s with " + Math.round((1 - MAX_UTILIZATION) * 100) +
+                "% headroom, using the cheapest (" + costs[0] + ")");
+            best = cheapest != null ? cheapest
+                : new CalibrationResult(target.getName(), costs[0], 0, 0, System.currentTimeMillis());
+        }
+
+        hashers.applyCost(best.cost());
+        save(best);
+        lastResult = best;
+        plugin.getLogger().info("Hash cost calibrated: " + best.algorithm() + " cost=" + best.cost());
+        return best;
+    }
+
+    /**
+     * Submits hashes to the hashing pool at {@code rate} per second and
+     * measures each from submission to completion.
+     *
+     * @return null if the pool refused or dropped hashes at this rate
+     */
+    private CalibrationResult benchmark(String algorithm, PasswordHasher hasher, int cost, double rate, int samples) {
+        // Warm up so the JIT does not skew the first samples
+        hasher.hash(BENCHMARK_PASSWORD);
+
+        HashingService service = plugin.getHashingService();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        int requests = (int) Math.max(samples, Math.ceil(rate * MIN_LOAD_MILLIS / 1000.0));
+        long[] latencies = new long[requests];
+        long[] serviceNanos = new long[requests];
+        List<CompletableFuture<Void>> pending = new ArrayList<>(requests);
+
+        // Open loop: arrivals keep their schedule however far behind the pool falls
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            long due = start + i * intervalNanos;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(e);
+                }
+            }
+
+            int index = i;
+            long submitted = System.nanoTime();
+            pending.add(service.submit(() -> {
+                long begin = System.nanoTime();
+                hasher.hash(BENCHMARK_PASSWORD);
+                return System.nanoTime() - begin;
+            }).thenAccept(nanos -> {
+                serviceNanos[index] = nanos;
+                latencies[index] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitted);
+            }));
+        }
+
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            plugin.getLogger().info(String.format("Calibration %s cost=%d: the hashing pool could not keep up at %.1f/s (%s)",
+                algorithm, cost, rate, e.getCause().getMessage()));
+            return null;
+        }
+
+        long p95 = percentile(latencies, 0.95);
+        double meanServiceMillis = Arrays.stream(serviceNanos).average().orElse(0) / 1_000_000.0;
+        double capacity = meanServiceMillis > 0 ? service.getThreads() * 1000.0 / meanServiceMillis : Double.MAX_VALUE;
+        plugin.getLogger().info(String.format("Calibration %s cost=%d: p95=%dms under %.1f/s, capacity=%.1f/s (%.0f%% busy)",
+            algorithm, cost, p95, rate, capacity, Math.min(100, rate / capacity * 100)));
+        return new CalibrationResult(algorithm, cost, p95, capacity, System.currentTimeMillis());
+    }
+
+    private static long percentile(long[] values, double percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private void save(CalibrationResult result) {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("algorithm", result.algorithm());
+        config.set("cost", result.cost());
+        config.set("p95", result.p95Millis());
+        config.set("capacity", result.capacityPerSecond());
+        config.set("measured_at", result.measuredAt());
+
+        try {
+            config.save(new File(plugin.getDataFolder(), FILE_NAME));
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to save hash calibration: " + e.getMessage());
+        }
+    }
+
+    static CalibrationResult loadSaved(CustomAuth plugin) {
+        File file = new File(plugin.getDataFolder(), FILE_NAME);
+        if (!file.exists()) {
+            return null;
+        }
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        if (!config.contains("algorithm") || !config.contains("cost")) {
+            return null;
+        }
+
+        return new CalibrationResult(
+            config.getString("algorithm"),
+            config.getInt("cost"),
+            config.getLong("p95"),
+            config.getDouble("capacity"),
+            config.getLong("measured_at")
+        );
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public CalibrationResult getLastResult() {
+        return lastResult;
+    }
+
+    public record CalibrationResult(String algorithm, int cost, long p95Millis,
+                                    double capacityPerSecond, long measuredAt) {}
+}
@@ -0,0 +1,170 @@
+package dev.doom.customauth.security;
+
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.exceptions.ServerBusyException;
+import org.bukkit.command.CommandSender;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on its own bounded, CPU-sized pool so a burst of
+ * logins can never starve the storage and mail executors.
+ */
+public class HashingService {
+    private final CustomAuth plugin;
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final long deadlineNanos;
+
+    // Metrics
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong totalServiceNanos = new AtomicLong();
+
+    public HashingService(CustomAuth plugin) {
+        this.plugin = plugin;
+
+        int configuredThreads = plugin.getConfig().getInt("performance.hashing.threads", 0);
+        this.threads = configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+        int queueSize = Math.max(1, plugin.getConfig().getInt("performance.hashing.queue_size", 256));
+        this.deadlineNanos = TimeUnit.SECONDS.toNanos(
+            plugin.getConfig().getLong("performance.hashing.deadline", 10));
+
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            threads, threads,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            runnable -> {
+                Thread thread = new Thread(runnable, "CustomAuth-Hashing-" + threadId.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public CompletableFuture<String> hash(String password) {
+        return submit(() -> plugin.getSecurityUtils().hashPassword(password));
+    }
+
+    public CompletableFuture<Boolean> verify(String password, String hashedPassword) {
+        return submit(() -> plugin.getSecurityUtils().checkPassword(password, hashedPassword));
+    }
+
+    // Package-private so the calibrator can measure through the same queue
+    <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+
+        try {
+            executor.execute(() -> {
+                long waited = System.nanoTime() - enqueuedAt;
+                recordWait(waited);
+
+                // Drop requests whose caller has most likely given up already
+                if (waited > deadlineNanos) {
+                    expired.incrementAndGet();
+                    future.completeExceptionally(busy());
+                    return;
+                }
+
+                long startedAt = System.nanoTime();
+                try {
+                    future.complete(work.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    totalServiceNanos.addAndGet(System.nanoTime() - startedAt);
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            future.completeExceptionally(busy());
+        }
+
+        return future;
+    }
+
+    private void recordWait(long waitedNanos) {
+        totalWaitNanos.addAndGet(waitedNanos);
+        maxWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+    }
+
+    private ServerBusyException busy() {
+        return new ServerBusyException("Password hashing queue is saturated", getRetryAfterSeconds());
+    }
+
+    /**
+     * Estimates how long the current backlog needs to drain, based on the
+     * observed average cost of a single hash.
+     */
+    public int getRetryAfterSeconds() {
+        long backlog = executor.getQueue().size() + executor.getActiveCount();
+        long drainMillis = backlog * getAverageServiceMillis() / threads;
+        return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(drainMillis + 999));
+    }
+
+    /**
+     * Tells the sender why a hashing request failed. Saturation is reported
+     * with a retry hint, anything else falls back to the given message key.
+     */
+    public void notifyFailure(CommandSender sender, Throwable error, String fallbackMessageKey) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ?
+            error.getCause() : error;
+
+        if (cause instanceof ServerBusyException busy) {
+            sender.sendMessage(plugin.getLanguageManager().getMessage("error.server_busy")
+                .replace("%seconds%", String.valueOf(busy.getRetryAfterSeconds())));
+        } else {
+            plugin.getLogger().severe("Password hashing failed: " + cause.getMessage());
+            sender.sendMessage(plugin.getLanguageManager().getMessage(fallbackMessageKey));
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Metrics getters
+    public int getThreads() { return threads; }
+    public int getQueueDepth() { return executor.getQueue().size(); }
+    public int getActiveCount() { return executor.getActiveCount(); }
+    public long getCompleted() { return completed.get(); }
+    public long getRejected() { return rejected.get(); }
+    public long getExpired() { return expired.get(); }
+
+    public long getAverageWaitMillis() {
+        long started = completed.get() + expired.get();
+        return started == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / started);
+    }
+
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    public long getAverageServiceMillis() {
+        long done = completed.get();
+        // Assume a cost-12 BCrypt hash until we have real samples
+        return done == 0 ? 250 : TimeUnit.NANOSECONDS.toMillis(totalServiceNanos.get() / done);
+    }
+}
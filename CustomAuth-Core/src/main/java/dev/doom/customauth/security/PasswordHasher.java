@@ -0,0 +1,58 @@
+package dev.doom.customauth.security;
+
+/**
+ * A password hashing algorithm. Implementations must be thread-safe, they
+ * are shared by all hashing pool workers.
+ */
+public interface PasswordHasher {
+
+    /**
+     * @return Name used to select this hasher in the config
+     */
+    String getName();
+
+    /**
+     * @param hashedPassword Stored hash
+     * @return true if the hash was produced by this algorithm
+     */
+    boolean matchesFormat(String hashedPassword);
+
+    String hash(String password);
+
+    boolean verify(String password, String hashedPassword);
+
+    /**
+     * @param hashedPassword Stored hash in this hasher's format
+     * @return true if the hash was produced with weaker parameters than configured
+     */
+    boolean needsRehash(String hashedPassword);
+
+    /**
+     * @return false for legacy formats that are only kept around for verification
+     */
+    default boolean canHash() {
+        return true;
+    }
+
+    /**
+     * @return Current work factor (BCrypt log rounds, Argon2 iterations, PBKDF2 iterations)
+     */
+    default int getCost() {
+        return 0;
+    }
+
+    /**
+     * @param cost Work factor
+     * @return A copy of this hasher using the given work factor
+     */
+    default PasswordHasher withCost(int cost) {
+        return this;
+    }
+
+    /**
+     * @return Work factors worth benchmarking, cheapest first
+     */
+    default int[] getCalibrationCosts() {
+        return new int[0];
+    }
+}
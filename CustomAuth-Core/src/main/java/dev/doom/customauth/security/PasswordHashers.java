@@ -0,0 +1,107 @@
+package dev.doom.customauth.security;
+
+import dev.doom.customauth.CustomAuth;
+import java.util.List;
+
+/**
+ * Picks the right {@link PasswordHasher} for a stored hash by its prefix, and
+ * the configured target hasher for new hashes.
+ */
+public class PasswordHashers {
+    private final CustomAuth plugin;
+    private volatile List<PasswordHasher> hashers;
+    private volatile PasswordHasher target;
+
+    public PasswordHashers(CustomAuth plugin) {
+        this.plugin = plugin;
+        load();
+    }
+
+    public void load() {
+        List<PasswordHasher> loaded = List.of(
+            new BCryptHasher(plugin.getConfig().getInt("security.hashing.bcrypt.cost", 12)),
+            new Argon2idHasher(
+                plugin.getConfig().getInt("security.hashing.argon2id.memory", 65536),
+                plugin.getConfig().getInt("security.hashing.argon2id.iterations", 3),
+                plugin.getConfig().getInt("security.hashing.argon2id.parallelism", 1)),
+            new Pbkdf2Hasher(plugin.getConfig().getInt("security.hashing.pbkdf2.iterations", 310000)),
+            new AuthMeSha256Hasher()
+        );
+
+        String algorithm = plugin.getConfig().getString("security.hashing.algorithm", "bcrypt");
+        PasswordHasher selected = loaded.stream()
+            .filter(hasher -> hasher.canHash() && hasher.getName().equalsIgnoreCase(algorithm))
+            .findFirst()
+            .orElse(null);
+
+        if (selected == null) {
+            plugin.getLogger().warning("Unknown hashing algorithm '" + algorithm + "', falling back to bcrypt");
+            selected = loaded.get(0);
+        }
+
+        // A previous calibration for this algorithm overrides the configured cost
+        HashCalibrator.CalibrationResult saved = HashCalibrator.loadSaved(plugin);
+        if (saved != null && saved.algorithm().equals(selected.getName())) {
+            selected = selected.withCost(saved.cost());
+        }
+
+        this.hashers = replace(loaded, selected);
+        this.target = selected;
+    }
+
+    /**
+     * Switches the target hasher to a new work factor. Existing hashes with a
+     * lower cost are upgraded on their next login.
+     */
+    public void applyCost(int cost) {
+        PasswordHasher updated = target.withCost(cost);
+        this.hashers = replace(hashers, updated);
+        this.target = updated;
+    }
+
+    private static List<PasswordHasher> replace(List<PasswordHasher> hashers, PasswordHasher replacement) {
+        return hashers.stream()
+            .map(hasher -> hasher.getName().equals(replacement.getName()) ? replacement : hasher)
+            .toList();
+    }
+
+    public PasswordHasher getTarget() {
+        return target;
+    }
+
+    /**
+     * @param hashedPassword Stored hash
+     * @return The hasher that produced it, or null if the format is unknown
+     */
+    public PasswordHasher identify(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.isEmpty()) {
+            return null;
+        }
+        for (PasswordHasher hasher : hashers) {
+            if (hasher.matchesFormat(hashedPassword)) {
+                return hasher;
+            }
+        }
+        return null;
+    }
+
+    public String hash(String password) {
+        return target.hash(password);
+    }
+
+    public boolean verify(String password, String hashedPassword) {
+        PasswordHasher hasher = identify(hashedPassword);
+        return hasher != null && hasher.verify(password, hashedPassword);
+    }
+
+    /**
+     * @param hashedPassword Stored hash
+     * @return true if it uses another algorithm or weaker parameters than the target
+     */
+    public boolean needsRehash(String hashedPassword) {
+        PasswordHasher hasher = identify(hashedPassword);
+        PasswordHasher current = target;
+        return hasher != null &&
+               (!hasher.getName().equals(current.getName()) || current.needsRehash(hashedPassword));
+    }
+}
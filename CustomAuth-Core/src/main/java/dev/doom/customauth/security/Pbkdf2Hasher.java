@@ -0,0 +1,99 @@
+package dev.doom.customauth.security;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * PBKDF2-HMAC-SHA256 stored as {@code $pbkdf2-sha256$i=<iterations>$<salt>$<hash>}.
+ */
+public class Pbkdf2Hasher implements PasswordHasher {
+    private static final String PREFIX = "$pbkdf2-sha256$";
+    private static final int SALT_LENGTH = 16;
+    private static final int KEY_LENGTH = 32;
+
+    private final int iterations;
+    private final SecureRandom secureRandom;
+
+    public Pbkdf2Hasher(int iterations) {
+        this.iterations = iterations;
+        this.secureRandom = new SecureRandom();
+    }
+
+    @Override
+    public String getName() {
+        return "pbkdf2";
+    }
+
+    @Override
+    public boolean matchesFormat(String hashedPassword) {
+        return hashedPassword.startsWith(PREFIX);
+    }
+
+    @Override
+    public int getCost() {
+        return iterations;
+    }
+
+    @Override
+    public PasswordHasher withCost(int cost) {
+        return new Pbkdf2Hasher(cost);
+    }
+
+    @Override
+    public int[] getCalibrationCosts() {
+        return new int[] {100000, 200000, 310000, 400000, 600000, 800000};
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        secureRandom.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations, KEY_LENGTH);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "i=" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    @Override
+    public boolean verify(String password, String hashedPassword) {
+        String[] parts = hashedPassword.split("\\$");
+        // ["", "pbkdf2-sha256", "i=N", salt, hash]
+        if (parts.length != 5 || !parts[2].startsWith("i=")) {
+            return false;
+        }
+
+        try {
+            int storedIterations = Integer.parseInt(parts[2].substring(2));
+            byte[] salt = Base64.getDecoder().decode(parts[3]);
+            byte[] expected = Base64.getDecoder().decode(parts[4]);
+            return MessageDigest.isEqual(expected, derive(password, salt, storedIterations, expected.length));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String hashedPassword) {
+        String[] parts = hashedPassword.split("\\$");
+        try {
+            return Integer.parseInt(parts[2].substring(2)) < iterations;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations, int length) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, length * 8);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
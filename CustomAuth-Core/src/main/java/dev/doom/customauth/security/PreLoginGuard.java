@@ -0,0 +1,167 @@
+package dev.doom.customauth.security;
+
+import dev.doom.customauth.CustomAuth;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import java.net.InetAddress;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Refuses banned, rate limited and over-cap IPs during pre-login, before
+ * the server spends a player entity, chunk loads or a join broadcast on them.
+ * <p>
+ * A connection that passes the account cap reserves its slot right away, so
+ * a burst of simultaneous pre-logins from one IP cannot all get through
+ * before any of them has joined. The reservation is released if the login
+ * is refused later, and lapses if the player never joins.
+ */
+public class PreLoginGuard implements Listener {
+    // Marks a slot taken by a player who has joined, reservations hold their time instead
+    private static final long JOINED = Long.MAX_VALUE;
+    private static final long RESERVATION_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final CustomAuth plugin;
+    private final Map<String, Map<UUID, Long>> onlineByIp;
+    private final Map<Reason, LongAdder> rejections;
+
+    public PreLoginGuard(CustomAuth plugin) {
+        this.plugin = plugin;
+        this.onlineByIp = new ConcurrentHashMap<>();
+        this.rejections = new EnumMap<>(Reason.class);
+        for (Reason reason : Reason.values()) {
+            rejections.put(reason, new LongAdder());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        InetAddress address = event.getAddress();
+        SecurityUtils security = plugin.getSecurityUtils();
+
+        long banRemaining = security.getIpBanRemaining(address);
+        if (banRemaining > 0) {
+            reject(event, Reason.IP_BANNED, AsyncPlayerPreLoginEvent.Result.KICK_BANNED,
+                plugin.getLanguageManager().getMessage("security.ip_banned")
+                    .replace("%time%", String.valueOf(Math.max(1, TimeUnit.MILLISECONDS.toMinutes(banRemaining)))));
+            return;
+        }
+
+        if (!security.tryAcquireIpRate(address)) {
+            reject(event, Reason.RATE_LIMITED, AsyncPlayerPreLoginEvent.Result.KICK_OTHER,
+                plugin.getLanguageManager().getMessage("security.ip_rate_limit"));
+            return;
+        }
+
+        int maxAccounts = plugin.getConfig().getInt("security.max_accounts_per_ip", 0);
+        if (maxAccounts > 0 && !tryReserve(address.getHostAddress(), event.getUniqueId(), maxAccounts)) {
+            reject(event, Reason.ACCOUNT_CAP, AsyncPlayerPreLoginEvent.Result.KICK_OTHER,
+                plugin.getLanguageManager().getMessage("security.too_many_accounts")
+                    .replace("%max%", String.valueOf(maxAccounts)));
+        }
+    }
+
+    /**
+     * Counts the other players and live reservations on the IP and takes a
+     * slot if one is free, in one step so parallel pre-logins cannot both
+     * see the last slot as free.
+     */
+    private boolean tryReserve(String ip, UUID uuid, int maxAccounts) {
+        long now = System.currentTimeMillis();
+        boolean[] reserved = new boolean[1];
+        onlineByIp.compute(ip, (key, online) -> {
+            Map<UUID, Long> slots = online != null ? online : new ConcurrentHashMap<>();
+            // Connections that never joined give their slot back
+            slots.values().removeIf(since -> since != JOINED && now - since > RESERVATION_MILLIS);
+
+            // A relog replaces the old connection, it does not take another slot
+            int others = slots.containsKey(uuid) ? slots.size() - 1 : slots.size();
+            if (others < maxAccounts) {
+                slots.putIfAbsent(uuid, now);
+                reserved[0] = true;
+            }
+            return slots.isEmpty() ? null : slots;
+        });
+        return reserved[0];
+    }
+
+    // Gives the slot back if a later plugin refused the connection
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLoginResult(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            release(event.getAddress().getHostAddress(), event.getUniqueId());
+        }
+    }
+
+    // Whitelist, full server or a vanilla ban can still refuse it after pre-login
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            release(event.getAddress().getHostAddress(), event.getPlayer().getUniqueId());
+        }
+    }
+
+    // Only a reservation, a player who is still online keeps their slot
+    private void release(String ip, UUID uuid) {
+        onlineByIp.computeIfPresent(ip, (key, online) -> {
+            online.computeIfPresent(uuid, (id, since) -> since == JOINED ? since : null);
+            return online.isEmpty() ? null : online;
+        });
+    }
+
+    private void reject(AsyncPlayerPreLoginEvent event, Reason reason,
+                        AsyncPlayerPreLoginEvent.Result result, String message) {
+        event.disallow(result, message);
+        rejections.get(reason).increment();
+        plugin.getDebugLogger().log(String.format("Refused %s from %s: %s",
+            event.getName(), plugin.getSecurityUtils().maskIp(event.getAddress().getHostAddress()), reason));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        // compute keeps this atomic with the removal in onQuit
+        onlineByIp.compute(ipOf(player), (ip, online) -> {
+            Map<UUID, Long> slots = online != null ? online : new ConcurrentHashMap<>();
+            slots.put(player.getUniqueId(), JOINED);
+            return slots;
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        onlineByIp.computeIfPresent(ipOf(player), (ip, online) -> {
+            online.remove(player.getUniqueId());
+            return online.isEmpty() ? null : online;
+        });
+    }
+
+    private static String ipOf(Player player) {
+        return player.getAddress().getAddress().getHostAddress();
+    }
+
+    public long getRejections(Reason reason) {
+        return rejections.get(reason).sum();
+    }
+
+    public enum Reason {
+        IP_BANNED,
+        RATE_LIMITED,
+        ACCOUNT_CAP
+    }
+}
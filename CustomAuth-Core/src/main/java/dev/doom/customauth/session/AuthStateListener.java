@@ -0,0 +1,22 @@
+package dev.doom.customauth.session;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Receives auth state transitions from the {@link AuthStateRegistry}. Callbacks
+ * may run on any thread, implementations must hop to the right one themselves.
+ */
+public interface AuthStateListener {
+
+    /**
+     * The player joined or logged out and now has to log in.
+     */
+    default void onPending(Player player) {}
+
+    default void onAuthenticated(Player player) {}
+
+    /**
+     * The player is leaving the server. Called on the player's own thread.
+     */
+    default void onRemoved(Player player) {}
+}
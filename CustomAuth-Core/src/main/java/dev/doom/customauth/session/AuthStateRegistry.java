@@ -0,0 +1,109 @@
+package dev.doom.customauth.session;
+
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.PlayerData;
+import org.bukkit.entity.Player;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Single source of truth for "is this online player authenticated". Lookups
+ * are keyed by the player's UUID so the hot protection handlers never build
+ * lowercase names or touch the player cache.
+ * <p>
+ * Online players that still have to log in are tracked as pending, so the
+ * protection listeners only need to exist while somebody is waiting.
+ */
+public class AuthStateRegistry {
+    private final CustomAuth plugin;
+    private final Set<UUID> authenticated;
+    private final Set<UUID> pending;
+    private final List<AuthStateListener> listeners;
+
+    public AuthStateRegistry(CustomAuth plugin) {
+        this.plugin = plugin;
+        this.authenticated = ConcurrentHashMap.newKeySet();
+        this.pending = ConcurrentHashMap.newKeySet();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    public boolean isAuthenticated(Player player) {
+        return authenticated.contains(player.getUniqueId());
+    }
+
+    public boolean isAuthenticated(UUID uuid) {
+        return authenticated.contains(uuid);
+    }
+
+    /**
+     * Marks the player as logged in. The cached data is updated before the
+     * gate opens, so anything the gate lets through sees consistent data.
+     * <p>
+     * Only a player who is online and still waiting to log in can be
+     * authenticated. A login that finishes after the player quit would
+     * otherwise leave them authenticated when they rejoin.
+     *
+     * @return false if nothing changed, callers then skip login bookkeeping
+     */
+    public synchronized boolean authenticate(Player player, PlayerData data) {
+        if (!player.isOnline() || !pending.contains(player.getUniqueId())) {
+            return false;
+        }
+        data.setLoggedIn(true);
+        plugin.cachePlayerData(player.getName().toLowerCase(), data);
+        authenticated.add(player.getUniqueId());
+        pending.remove(player.getUniqueId());
+        listeners.forEach(listener -> listener.onAuthenticated(player));
+        return true;
+    }
+
+    /**
+     * Marks the player as logged out. The gate closes before the cached data
+     * changes, so the player can never act on stale authenticated state.
+     */
+    public synchronized void deauthenticate(Player player, PlayerData data) {
+        if (pending.add(player.getUniqueId())) {
+            listeners.forEach(listener -> listener.onPending(player));
+        }
+        authenticated.remove(player.getUniqueId());
+        if (data != null) {
+            data.setLoggedIn(false);
+            plugin.cachePlayerData(player.getName().toLowerCase(), data);
+        }
+    }
+
+    /**
+     * Called when a player joins. Players that were already authenticated
+     * (e.g. by a faster Bedrock auto-login) are left alone.
+     */
+    public synchronized void markPending(Player player) {
+        if (!authenticated.contains(player.getUniqueId()) && pending.add(player.getUniqueId())) {
+            listeners.forEach(listener -> listener.onPending(player));
+        }
+    }
+
+    public synchronized void remove(Player player) {
+        authenticated.remove(player.getUniqueId());
+        pending.remove(player.getUniqueId());
+        listeners.forEach(listener -> listener.onRemoved(player));
+    }
+
+    public boolean isPending(UUID uuid) {
+        return pending.contains(uuid);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public void addListener(AuthStateListener listener) {
+        listeners.add(listener);
+    }
+
+    public int getAuthenticatedCount() {
+        return authenticated.size();
+    }
+}
@@ -0,0 +1,177 @@
+package dev.doom.customauth.session;
+
+import dev.doom.customauth.CustomAuth;
+import org.bukkit.entity.Player;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hashed timing wheel for login deadlines and "please /login" reminders.
+ * One global task advances it once per tick, so a join wave costs two list
+ * nodes per player instead of a scheduler entry and closure each, and a
+ * login or quit unlinks them in O(1).
+ */
+public class AuthTimeoutWheel implements AuthStateListener {
+    private static final int WHEEL_SIZE = 512;
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final CustomAuth plugin;
+    private final Entry[] slots = new Entry[WHEEL_SIZE];
+    private final Map<UUID, Timers> timers = new HashMap<>();
+    private long tick;
+    private long timeoutTicks;
+    private long reminderTicks;
+
+    public AuthTimeoutWheel(CustomAuth plugin) {
+        this.plugin = plugin;
+        loadConfig();
+        plugin.getTaskScheduler().runGlobalTimer(this::advance, 1L, 1L);
+    }
+
+    public void loadConfig() {
+        this.timeoutTicks = plugin.getConfig().getLong("security.login_timeout", 60) * 20L;
+        this.reminderTicks = plugin.getConfig().getLong("security.login_reminder_interval", 10) * 20L;
+    }
+
+    /**
+     * Starts the login deadline (and reminders) for a player that just joined.
+     */
+    public synchronized void schedule(Player player) {
+        if (!plugin.getAuthStateRegistry().isPending(player.getUniqueId())) {
+            return;
+        }
+
+        cancel(player.getUniqueId());
+        Timers playerTimers = new Timers();
+        if (timeoutTicks > 0) {
+            playerTimers.timeout = insert(new Entry(player, true), timeoutTicks);
+        }
+        if (reminderTicks > 0 && (timeoutTicks <= 0 || reminderTicks < timeoutTicks)) {
+            playerTimers.reminder = insert(new Entry(player, false), reminderTicks);
+        }
+        timers.put(player.getUniqueId(), playerTimers);
+    }
+
+    @Override
+    public void onAuthenticated(Player player) {
+        cancel(player.getUniqueId());
+    }
+
+    @Override
+    public void onRemoved(Player player) {
+        cancel(player.getUniqueId());
+    }
+
+    private synchronized void cancel(UUID uuid) {
+        Timers playerTimers = timers.remove(uuid);
+        if (playerTimers != null) {
+            unlink(playerTimers.timeout);
+            unlink(playerTimers.reminder);
+        }
+    }
+
+    private void advance() {
+        List<Entry> expired = new ArrayList<>();
+        synchronized (this) {
+            tick++;
+            Entry entry = slots[(int) (tick & MASK)];
+            while (entry != null) {
+                Entry next = entry.next;
+                if (entry.rounds > 0) {
+                    entry.rounds--;
+                } else {
+                    unlink(entry);
+                    expired.add(entry);
+                }
+                entry = next;
+            }
+
+            // Only touch other entries once the slot walk is done
+            for (Entry expiredEntry : expired) {
+                Timers playerTimers = timers.get(expiredEntry.player.getUniqueId());
+                if (expiredEntry.timeout) {
+                    cancel(expiredEntry.player.getUniqueId());
+                } else if (playerTimers != null && playerTimers.reminder == expiredEntry) {
+                    playerTimers.reminder = insert(new Entry(expiredEntry.player, false), reminderTicks);
+                }
+            }
+        }
+
+        // Everything that expired this tick, each kick on the player's own thread
+        for (Entry entry : expired) {
+            Player player = entry.player;
+            if (!player.isOnline() || !plugin.getAuthStateRegistry().isPending(player.getUniqueId())) {
+                continue;
+            }
+            if (entry.timeout) {
+                plugin.getTaskScheduler().runOnEntity(player, () -> {
+                    if (player.isOnline() && !plugin.getAuthStateRegistry().isAuthenticated(player)) {
+                        player.kickPlayer(plugin.getLanguageManager().getMessage("login.timeout"));
+                    }
+                });
+            } else {
+                boolean registered = plugin.getCachedPlayerData(player.getName().toLowerCase()) != null;
+                player.sendMessage(plugin.getLanguageManager().getMessage(
+                    registered ? "login.required" : "register.required"));
+            }
+        }
+    }
+
+    private Entry insert(Entry entry, long delayTicks) {
+        long delay = Math.max(1L, delayTicks);
+        int slot = (int) ((tick + delay) & MASK);
+        entry.rounds = (delay - 1) / WHEEL_SIZE;
+        entry.slot = slot;
+        entry.next = slots[slot];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        slots[slot] = entry;
+        entry.linked = true;
+        return entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry == null || !entry.linked) {
+            return;
+        }
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            slots[entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+        entry.linked = false;
+    }
+
+    public synchronized int getScheduledCount() {
+        return timers.size();
+    }
+
+    private static final class Timers {
+        private Entry timeout;
+        private Entry reminder;
+    }
+
+    private static final class Entry {
+        private final Player player;
+        private final boolean timeout;
+        private long rounds;
+        private int slot;
+        private boolean linked;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(Player player, boolean timeout) {
+            this.player = player;
+            this.timeout = timeout;
+        }
+    }
+}
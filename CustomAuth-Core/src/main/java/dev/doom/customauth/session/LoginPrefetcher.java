@@ -0,0 +1,88 @@
+package dev.doom.customauth.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.LoginSnapshot;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads account, registration status and persisted session while the
+ * connection is still in {@link AsyncPlayerPreLoginEvent}, which already runs
+ * off the tick threads. The join handler then only does in-memory lookups.
+ * Snapshots of connections that never make it to join expire on their own.
+ */
+public class LoginPrefetcher implements Listener {
+    private final CustomAuth plugin;
+    private final Cache<UUID, LoginSnapshot> snapshots;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public LoginPrefetcher(CustomAuth plugin) {
+        this.plugin = plugin;
+        this.snapshots = Caffeine.newBuilder()
+            .maximumSize(plugin.getConfig().getInt("performance.prefetch.max_entries", 1000))
+            .expireAfterWrite(plugin.getConfig().getLong("performance.prefetch.ttl", 30), TimeUnit.SECONDS)
+            .build();
+    }
+
+    // MONITOR so connections refused by another handler are never loaded
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        try {
+            LoginSnapshot snapshot = load(event.getName(), event.getUniqueId());
+            if (!snapshot.isRegistered()) {
+                plugin.getAccountLookupService().recordAbsent(snapshot.username());
+            }
+            snapshots.put(event.getUniqueId(), snapshot);
+        } catch (Exception e) {
+            // The join handler falls back to loading on its own
+            plugin.getLogger().warning("Failed to prefetch login data for " + event.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes and returns the prefetched snapshot, or null if there is none
+     * (prefetch failed, expired, or the player joined during a reload).
+     */
+    public LoginSnapshot take(Player player) {
+        LoginSnapshot snapshot = snapshots.asMap().remove(player.getUniqueId());
+        if (snapshot == null || !snapshot.username().equals(player.getName().toLowerCase())) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return snapshot;
+    }
+
+    /**
+     * Blocking load, only call this from an async thread.
+     */
+    public LoginSnapshot load(String name, UUID uuid) {
+        String username = name.toLowerCase();
+        if (!plugin.getRegisteredNameFilter().mightContain(username)) {
+            // Certainly not registered, so there is no account or session to load
+            return new LoginSnapshot(username, null, null, System.currentTimeMillis());
+        }
+        return plugin.getStorage().loadLoginSnapshot(username, uuid).join();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -2,6 +2,7 @@
 package dev.doom.customauth.session;
 
 import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.LoginSnapshot;
 import dev.doom.customauth.models.PlayerData;
 import dev.doom.customauth.models.SessionData;
 import org.bukkit.entity.Player;
@@ -49,11 +50,7 @@ public class SessionManager {
 
         // Save session if persistence is enabled
         if (plugin.getConfig().getBoolean("session.persist", true)) {
-            if (plugin.getDatabase() != null) {
-                plugin.getDatabase().saveSession(username, token, expiry, ip);
-            } else {
-                plugin.getFileStorage().saveSession(sessionData);
-            }
+            plugin.getStorage().saveSession(sessionData);
         }
 
         // Send session duration message
@@ -63,6 +60,14 @@ public class SessionManager {
     }
 
     public boolean hasValidSession(Player player) {
+        return hasValidSession(player, null);
+    }
+
+    /**
+     * @param snapshot Prefetched login data, its session replaces the storage
+     *                 lookup. Null to load the persisted session here.
+     */
+    public boolean hasValidSession(Player player, LoginSnapshot snapshot) {
         if (!plugin.getConfig().getBoolean("session.enabled", true)) {
             return false;
         }
@@ -82,7 +87,7 @@ public class SessionManager {
 
         // Check persistent storage if enabled
         if (plugin.getConfig().getBoolean("session.persist", true)) {
-            session = loadSession(username);
+            session = snapshot != null ? snapshot.session() : loadSession(username);
             if (session != null && isSessionValid(session, player)) {
                 activeSessions.put(username, session);
                 sessionTokens.put(session.token(), username);
@@ -110,8 +115,8 @@ public class SessionManager {
             }
         }
 
-        // Validate UUID
-        if (!session.uuid().equals(player.getUniqueId())) {
+        // Validate UUID, sessions loaded from SQL are not bound to one
+        if (session.uuid() != null && !session.uuid().equals(player.getUniqueId())) {
             plugin.getDebugLogger().log(String.format(
                 "Session UUID mismatch for %s: expected=%s, got=%s",
                 player.getName(), session.uuid(), player.getUniqueId()
@@ -122,14 +127,28 @@ public class SessionManager {
         return true;
     }
 
-    public void resumeSession(Player player) {
+    /**
+     * Logs the player in with their stored account, only the last login and
+     * last IP change.
+     *
+     * @param snapshot Prefetched login data, or null to use the cached account
+     * @return false if the account no longer exists, the session is dropped
+     */
+    public boolean resumeSession(Player player, LoginSnapshot snapshot) {
         String username = player.getName().toLowerCase();
-        PlayerData data = new PlayerData(username, "");
-        data.setLoggedIn(true);
+        PlayerData data = snapshot != null && snapshot.playerData() != null
+            ? snapshot.playerData() : plugin.getCachedPlayerData(username);
+        if (data == null) {
+            removeSession(username);
+            return false;
+        }
         data.setLastLogin(System.currentTimeMillis());
         data.setLastIp(player.getAddress().getAddress().getHostAddress());
         
-        plugin.cachePlayerData(username, data);
+        if (!plugin.getAuthStateRegistry().authenticate(player, data)) {
+            // Quit before the join was handled, there is nothing to prompt
+            return true;
+        }
         player.sendMessage(plugin.getLanguageManager().getMessage("session.resumed"));
 
         // Update session expiry
@@ -147,14 +166,10 @@ public class SessionManager {
 
             // Update persistent storage if enabled
             if (plugin.getConfig().getBoolean("session.persist", true)) {
-                if (plugin.getDatabase() != null) {
-                    plugin.getDatabase().updateSessionExpiry(
-                        username, session.token(), updatedSession.expiry());
-                } else {
-                    plugin.getFileStorage().saveSession(updatedSession);
-                }
+                plugin.getStorage().updateSessionExpiry(updatedSession);
             }
         }
+        return true;
     }
 
     public void removeSession(String username) {
@@ -165,11 +180,7 @@ public class SessionManager {
 
         // Remove from persistent storage if enabled
         if (plugin.getConfig().getBoolean("session.persist", true)) {
-            if (plugin.getDatabase() != null) {
-                plugin.getDatabase().deleteSession(username.toLowerCase());
-            } else {
-                plugin.getFileStorage().deleteSession(username.toLowerCase());
-            }
+            plugin.getStorage().deleteSession(username.toLowerCase());
         }
     }
 
@@ -178,20 +189,12 @@ public class SessionManager {
         
         // Remove all sessions for this username from persistent storage
         if (plugin.getConfig().getBoolean("session.persist", true)) {
-            if (plugin.getDatabase() != null) {
-                plugin.getDatabase().deleteAllSessions(username.toLowerCase());
-            } else {
-                plugin.getFileStorage().deleteAllSessions(username.toLowerCase());
-            }
+            plugin.getStorage().deleteAllSessions(username.toLowerCase());
         }
     }
 
     private SessionData loadSession(String username) {
-        if (plugin.getDatabase() != null) {
-            return plugin.getDatabase().getSession(username.toLowerCase()).join();
-        } else {
-            return plugin.getFileStorage().loadSession(username.toLowerCase());
-        }
+        return plugin.getStorage().loadSession(username.toLowerCase()).join();
     }
 
     private void startCleanupTask() {
@@ -211,11 +214,7 @@ public class SessionManager {
 
             // Cleanup persistent storage
             if (plugin.getConfig().getBoolean("session.persist", true)) {
-                if (plugin.getDatabase() != null) {
-                    plugin.getDatabase().cleanupExpiredSessions(now);
-                } else {
-                    plugin.getFileStorage().cleanupExpiredSessions(now);
-                }
+                plugin.getStorage().cleanupExpiredSessions(now);
             }
         }, cleanupInterval, cleanupInterval);
     }
@@ -0,0 +1,73 @@
+package dev.doom.customauth.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.AccountLookup;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The one way to ask "does this account exist, and what is in it". Names the
+ * registered name filter rules out and recently missed names are answered
+ * here, everything else by storage (which answers cached players itself).
+ */
+public class AccountLookupService {
+    private final CustomAuth plugin;
+    private final Cache<String, Boolean> unregistered;
+
+    public AccountLookupService(CustomAuth plugin) {
+        this.plugin = plugin;
+        this.unregistered = Caffeine.newBuilder()
+            .maximumSize(plugin.getConfig().getInt("performance.negative_cache.max_entries", 10000))
+            .expireAfterWrite(plugin.getConfig().getLong("performance.negative_cache.ttl", 5), TimeUnit.SECONDS)
+            .build();
+    }
+
+    public CompletableFuture<AccountLookup> lookup(String username) {
+        String name = username.toLowerCase();
+
+        if (!plugin.getRegisteredNameFilter().mightContain(name) || unregistered.getIfPresent(name) != null) {
+            return CompletableFuture.completedFuture(AccountLookup.absent());
+        }
+
+        return plugin.getStorage().lookupAccount(name).thenApply(lookup -> {
+            if (lookup.isAbsent()) {
+                unregistered.put(name, Boolean.TRUE);
+            }
+            return lookup;
+        });
+    }
+
+    /**
+     * Blocking variant for code that already runs off the tick threads.
+     */
+    public AccountLookup lookupNow(String username) {
+        return lookup(username).join();
+    }
+
+    /**
+     * Remembers a name that is known not to exist, e.g. from a pre-login prefetch.
+     */
+    public void recordAbsent(String username) {
+        unregistered.put(username.toLowerCase(), Boolean.TRUE);
+    }
+
+    /**
+     * Must be called whenever an account is created, so the name enters the
+     * registered name filter and stops resolving as unregistered.
+     */
+    public void invalidate(String username) {
+        plugin.getRegisteredNameFilter().add(username);
+        unregistered.invalidate(username.toLowerCase());
+    }
+
+    public void invalidateAll() {
+        unregistered.invalidateAll();
+        plugin.getRegisteredNameFilter().rebuild();
+    }
+
+    public void recordRemoved(String username) {
+        plugin.getRegisteredNameFilter().recordRemoval();
+    }
+}
@@ -0,0 +1,363 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.models.PlayerData;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Bulk import and export of the players table as CSV, one row per account
+ * with a header of {@link #COLUMNS}. Rows stay text from file to table, so an
+ * export restores without loss on any backend.
+ * <p>
+ * On PostgreSQL both directions stream through COPY: an import is copied
+ * into a temporary table and moved over with one INSERT ... SELECT. Other
+ * databases use batched INSERT IGNORE and keyset-paged SELECTs. Either way
+ * existing accounts are never overwritten.
+ */
+public final class AccountTransfer {
+    public static final List<String> COLUMNS = List.of(
+        "username", "password", "email", "last_ip", "last_login", "registered_date",
+        "verified", "is_bedrock", "xuid", "device_id", "device_os"
+    );
+
+    private static final String COLUMN_LIST = String.join(", ", COLUMNS);
+    private static final int COUNT_CHUNK = 500;
+
+    private AccountTransfer() {
+    }
+
+    /**
+     * A row for a newly created account, e.g. one converted from another plugin.
+     */
+    public static String[] toRow(PlayerData data) {
+        return new String[] {
+            data.getUsername().toLowerCase(),
+            data.getHashedPassword(),
+            data.getEmail(),
+            data.getLastIp(),
+            String.valueOf(data.getLastLogin()),
+            String.valueOf(System.currentTimeMillis()),
+            String.valueOf(data.isVerified()),
+            String.valueOf(data.isBedrockPlayer()),
+            data.getXuid(),
+            data.getDeviceId(),
+            data.getDeviceOs()
+        };
+    }
+
+    /**
+     * Inserts the rows in one transaction, skipping usernames that exist.
+     *
+     * @return rows inserted
+     */
+    static int importRows(Connection conn, SqlDialect dialect, List<String[]> rows) throws SQLException {
+        // The SQLite writer already runs every write inside its group transaction
+        boolean ownTransaction = conn.getAutoCommit();
+        if (ownTransaction) {
+            conn.setAutoCommit(false);
+        }
+        try {
+            int imported = dialect.supportsCopy() ? copyIn(conn, rows) : insertBatch(conn, dialect, rows);
+            if (ownTransaction) {
+                conn.commit();
+            }
+            return imported;
+        } catch (SQLException e) {
+            if (ownTransaction) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            if (ownTransaction) {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // COPY cannot skip conflicts itself, so it fills a staging table first
+    private static int copyIn(Connection conn, List<String[]> rows) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TEMP TABLE account_import (LIKE players INCLUDING DEFAULTS) ON COMMIT DROP");
+
+            StringBuilder csv = new StringBuilder(rows.size() * 128);
+            for (String[] row : rows) {
+                appendRow(csv, row);
+            }
+            CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                copy.copyIn("COPY account_import (" + COLUMN_LIST + ") FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY into account_import failed", e);
+            }
+
+            return stmt.executeUpdate("INSERT INTO players (" + COLUMN_LIST + ") SELECT " + COLUMN_LIST
+                + " FROM account_import ON CONFLICT (username) DO NOTHING");
+        }
+    }
+
+    /**
+     * The count comes from the rows that did not exist beforehand, not from
+     * the batch results: rewritten MySQL batches report SUCCESS_NO_INFO for
+     * skipped duplicates as well.
+     */
+    private static int insertBatch(Connection conn, SqlDialect dialect, List<String[]> rows) throws SQLException {
+        Set<String> usernames = new LinkedHashSet<>();
+        for (String[] row : rows) {
+            usernames.add(row[0]);
+        }
+        int existing = countExisting(conn, usernames);
+
+        try (PreparedStatement stmt = conn.prepareStatement(dialect.insertIgnore("players", COLUMNS))) {
+            for (String[] row : rows) {
+                for (int i = 0; i < COLUMNS.size(); i++) {
+                    bind(stmt, i + 1, COLUMNS.get(i), row[i]);
+                }
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        return usernames.size() - existing;
+    }
+
+    // Primary key lookups in chunks, well under any driver's parameter limit
+    private static int countExisting(Connection conn, Set<String> usernames) throws SQLException {
+        List<String> names = new ArrayList<>(usernames);
+        int existing = 0;
+        for (int from = 0; from < names.size(); from += COUNT_CHUNK) {
+            List<String> chunk = names.subList(from, Math.min(names.size(), from + COUNT_CHUNK));
+            String sql = "SELECT COUNT(*) FROM players WHERE username IN ("
+                + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    existing += rs.getInt(1);
+                }
+            }
+        }
+        return existing;
+    }
+
+    private static void bind(PreparedStatement stmt, int index, String column, String value) throws SQLException {
+        switch (column) {
+            case "last_login", "registered_date" -> {
+                if (value == null || value.isEmpty()) {
+                    stmt.setNull(index, Types.BIGINT);
+                } else {
+                    stmt.setLong(index, Long.parseLong(value));
+                }
+            }
+            case "verified", "is_bedrock" -> stmt.setBoolean(index, parseBoolean(value));
+            default -> stmt.setString(index, value);
+        }
+    }
+
+    // PostgreSQL writes t/f, everything else true/false or 1/0
+    private static boolean parseBoolean(String value) {
+        return value != null && (value.equalsIgnoreCase("t") || value.equalsIgnoreCase("true") || value.equals("1"));
+    }
+
+    /**
+     * Writes every account as CSV with a header line.
+     *
+     * @return accounts written
+     */
+    static long export(Connection conn, SqlDialect dialect, Writer out, int pageSize) throws SQLException, IOException {
+        if (dialect.supportsCopy()) {
+            CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+            return copy.copyOut("COPY (SELECT " + COLUMN_LIST + " FROM players ORDER BY username) "
+                + "TO STDOUT WITH (FORMAT csv, HEADER)", out);
+        }
+
+        StringBuilder line = new StringBuilder(256);
+        line.append(COLUMN_LIST.replace(" ", "")).append('\n');
+        out.write(line.toString());
+
+        // Keyset pages, so no database has to hold one cursor over the whole table
+        String sql = "SELECT " + COLUMN_LIST + " FROM players WHERE username > ? ORDER BY username "
+            + dialect.limit("?");
+        long exported = 0;
+        String after = "";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            while (true) {
+                stmt.setString(1, after);
+                stmt.setInt(2, pageSize);
+                int count = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String[] row = new String[COLUMNS.size()];
+                        for (int i = 0; i < row.length; i++) {
+                            row[i] = rs.getString(i + 1);
+                        }
+                        // Read as text, booleans come back as 1/0 from MySQL and SQLite
+                        row[6] = String.valueOf(rs.getBoolean(7));
+                        row[7] = String.valueOf(rs.getBoolean(8));
+
+                        line.setLength(0);
+                        appendRow(line, row);
+                        out.write(line.toString());
+                        after = row[0];
+                        count++;
+                    }
+                }
+                exported += count;
+                if (count < pageSize) {
+                    return exported;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads an export and hands its rows over in batches. Columns are
+     * matched by the header, so their order does not matter.
+     *
+     * @throws IOException if the file is not a CustomAuth account export
+     */
+    public static void read(Reader in, int batchSize, Consumer<List<String[]>> batches) throws IOException {
+        CsvReader reader = new CsvReader(in);
+        String[] header = reader.next();
+        if (header == null) {
+            return;
+        }
+
+        int[] positions = new int[COLUMNS.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = Arrays.asList(header).indexOf(COLUMNS.get(i));
+        }
+        if (positions[0] < 0 || positions[1] < 0) {
+            throw new IOException("Missing username or password column");
+        }
+
+        List<String[]> batch = new ArrayList<>(batchSize);
+        String[] fields;
+        while ((fields = reader.next()) != null) {
+            String[] row = new String[COLUMNS.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = positions[i] >= 0 && positions[i] < fields.length ? fields[positions[i]] : null;
+            }
+            if (row[0] == null || row[1] == null) {
+                continue;
+            }
+            row[0] = row[0].toLowerCase();
+            batch.add(row);
+            if (batch.size() >= batchSize) {
+                batches.accept(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.accept(batch);
+        }
+    }
+
+    // Same format as PostgreSQL CSV: an unquoted empty field is NULL, "" is an empty string
+    private static void appendRow(StringBuilder out, String[] row) {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            String value = row[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.isEmpty() || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                out.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                out.append(value);
+            }
+        }
+        out.append('\n');
+    }
+
+    private static final class CsvReader {
+        private final Reader in;
+        private int peeked = -2;
+
+        private CsvReader(Reader in) {
+            this.in = in;
+        }
+
+        private int read() throws IOException {
+            if (peeked != -2) {
+                int c = peeked;
+                peeked = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        /**
+         * @return the fields of the next record, or null at the end of input
+         */
+        private String[] next() throws IOException {
+            List<String> fields = new ArrayList<>(COLUMNS.size());
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean inQuotes = false;
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+
+            while (true) {
+                if (inQuotes) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        int after = read();
+                        if (after == '"') {
+                            field.append('"');
+                        } else {
+                            inQuotes = false;
+                            peeked = after;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    inQuotes = true;
+                    quoted = true;
+                } else if (c == ',' || c == '\n' || c == '\r' || c == -1) {
+                    fields.add(field.isEmpty() && !quoted ? null : field.toString());
+                    field.setLength(0);
+                    quoted = false;
+                    if (c != ',') {
+                        if (c == '\r') {
+                            int after = read();
+                            if (after != '\n') {
+                                peeked = after;
+                            }
+                        }
+                        return fields.toArray(new String[0]);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.models.AccountLookup;
+import dev.doom.customauth.models.LoginSnapshot;
+import dev.doom.customauth.models.PlayerData;
+import dev.doom.customauth.models.SessionData;
+import java.net.InetAddress;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Everything the plugin stores, behind one asynchronous interface. The
+ * backends ({@link SqlAuthStorage}, {@link FileAuthStorage}) only adapt
+ * their storage; caching, coalescing, timing and retries are decorators
+ * around them, see {@link ForwardingAuthStorage}.
+ * <p>
+ * No method blocks the caller. Usernames may be passed in any case.
+ */
+public interface AuthStorage {
+
+    String getName();
+
+    // Accounts
+
+    CompletableFuture<AccountLookup> lookupAccount(String username);
+
+    /**
+     * Account plus its newest unexpired persisted session, for joining players.
+     */
+    CompletableFuture<LoginSnapshot> loadLoginSnapshot(String username, UUID uuid);
+
+    /**
+     * @return false if the account could not be created, e.g. because it exists
+     */
+    CompletableFuture<Boolean> registerAccount(PlayerData data);
+
+    CompletableFuture<Boolean> updatePassword(String username, String hashedPassword);
+
+    CompletableFuture<Boolean> updateBedrockDevice(String username, String deviceId, String deviceOs);
+
+    /**
+     * Clears the verified flag so the player has to verify again.
+     */
+    CompletableFuture<Boolean> resetVerification(String username);
+
+    CompletableFuture<Boolean> deleteAccount(String username);
+
+    /**
+     * Streams every registered lowercase username, in no particular order.
+     */
+    CompletableFuture<Void> forEachUsername(Consumer<String> action);
+
+    // Login bookkeeping and IP history, written behind and not awaited
+
+    void recordLogin(String username, InetAddress address, long timestamp);
+
+    void recordLastSeen(String username, String ip, long timestamp);
+
+    // Sessions
+
+    CompletableFuture<Void> saveSession(SessionData session);
+
+    CompletableFuture<Void> updateSessionExpiry(SessionData session);
+
+    /**
+     * @return The persisted session, null if there is none
+     */
+    CompletableFuture<SessionData> loadSession(String username);
+
+    CompletableFuture<Void> deleteSession(String username);
+
+    CompletableFuture<Void> deleteAllSessions(String username);
+
+    CompletableFuture<Void> cleanupExpiredSessions(long now);
+
+    // Tokens
+
+    CompletableFuture<Void> saveVerificationToken(String username, String token);
+
+    CompletableFuture<Boolean> verifyEmailToken(String token);
+
+    CompletableFuture<Void> saveResetToken(String username, String token, long expiry);
+
+    // Maintenance
+
+    /**
+     * Archives or removes inactive accounts.
+     */
+    CompletableFuture<Void> cleanup();
+
+    /**
+     * Writes out anything buffered and releases the backend.
+     */
+    void close();
+}
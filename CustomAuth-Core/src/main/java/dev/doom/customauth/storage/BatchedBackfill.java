@@ -0,0 +1,112 @@
+package dev.doom.customauth.storage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+
+/**
+ * Rewrites rows of a large table in small transactions so the server keeps
+ * serving logins while it runs. The select has to match only rows that still
+ * need work and take the batch size as its only parameter; updated rows then
+ * drop out of it, which makes the backfill resumable after a restart.
+ * <p>
+ * A backfill that moves rows to another table also gets a delete statement.
+ * Every selected row is deleted from the source in the same transaction,
+ * which is what makes it drop out of the select.
+ */
+public class BatchedBackfill {
+    private final String name;
+    private final String selectSql;
+    private final String updateSql;
+    private final RowBinder binder;
+    private final String deleteSql;
+    private final RowBinder deleteBinder;
+
+    public BatchedBackfill(String name, String selectSql, String updateSql, RowBinder binder) {
+        this(name, selectSql, updateSql, binder, null, null);
+    }
+
+    public BatchedBackfill(String name, String selectSql, String updateSql, RowBinder binder,
+                           String deleteSql, RowBinder deleteBinder) {
+        this.name = name;
+        this.selectSql = selectSql;
+        this.updateSql = updateSql;
+        this.binder = binder;
+        this.deleteSql = deleteSql;
+        this.deleteBinder = deleteBinder;
+    }
+
+    /**
+     * @return Number of rows updated (or moved)
+     */
+    public long run(DataSource dataSource, int batchSize, long pauseMillis) throws SQLException, InterruptedException {
+        long total = 0;
+        while (true) {
+            int updated = 0;
+            int deleted = 0;
+            int selected = 0;
+            try (Connection conn = dataSource.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement select = conn.prepareStatement(selectSql);
+                     PreparedStatement update = conn.prepareStatement(updateSql);
+                     PreparedStatement delete = deleteSql != null ? conn.prepareStatement(deleteSql) : null) {
+                    select.setInt(1, batchSize);
+                    ResultSet rs = select.executeQuery();
+                    int batched = 0;
+                    while (rs.next()) {
+                        selected++;
+                        if (binder.bind(rs, update)) {
+                            update.addBatch();
+                            batched++;
+                        }
+                        if (delete != null) {
+                            deleteBinder.bind(rs, delete);
+                            delete.addBatch();
+                        }
+                    }
+                    if (batched > 0) {
+                        for (int count : update.executeBatch()) {
+                            // MySQL reports 2 for an upsert that updated, count rows not changes
+                            updated += count > 0 || count == Statement.SUCCESS_NO_INFO ? 1 : 0;
+                        }
+                    }
+                    if (delete != null && selected > 0) {
+                        for (int count : delete.executeBatch()) {
+                            deleted += count > 0 || count == Statement.SUCCESS_NO_INFO ? 1 : 0;
+                        }
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+
+            total += updated;
+            // A batch that changed nothing would be selected again forever
+            if (selected < batchSize || updated + deleted == 0) {
+                return total;
+            }
+            Thread.sleep(pauseMillis);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @FunctionalInterface
+    public interface RowBinder {
+        /**
+         * Sets the statement parameters for one selected row.
+         *
+         * @return false to leave this row out of the statement
+         */
+        boolean bind(ResultSet row, PreparedStatement statement) throws SQLException;
+    }
+}
@@ -0,0 +1,81 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.AccountLookup;
+import dev.doom.customauth.models.PlayerData;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Answers account lookups from the {@link PlayerDataCache} and keeps the
+ * cached copy in step with every account change that goes through storage,
+ * so a password changed through the API cannot leave the old hash cached.
+ */
+public class CachingAuthStorage extends ForwardingAuthStorage {
+    private final CustomAuth plugin;
+
+    public CachingAuthStorage(CustomAuth plugin, AuthStorage delegate) {
+        super(delegate);
+        this.plugin = plugin;
+    }
+
+    @Override
+    public CompletableFuture<AccountLookup> lookupAccount(String username) {
+        String name = username.toLowerCase();
+        PlayerData cached = plugin.getCachedPlayerData(name);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(AccountLookup.present(cached));
+        }
+        return delegate.lookupAccount(name).thenApply(lookup -> {
+            if (lookup.isPresent()) {
+                plugin.cachePlayerData(name, lookup.playerData());
+            }
+            return lookup;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> registerAccount(PlayerData data) {
+        return delegate.registerAccount(data).thenApply(success -> {
+            if (success) {
+                plugin.cachePlayerData(data.getUsername().toLowerCase(), data);
+            }
+            return success;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updatePassword(String username, String hashedPassword) {
+        PlayerData cached = plugin.getCachedPlayerData(username.toLowerCase());
+        if (cached != null) {
+            cached.setHashedPassword(hashedPassword);
+        }
+        return delegate.updatePassword(username, hashedPassword);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateBedrockDevice(String username, String deviceId, String deviceOs) {
+        PlayerData cached = plugin.getCachedPlayerData(username.toLowerCase());
+        if (cached != null) {
+            cached.setDeviceId(deviceId);
+            cached.setDeviceOs(deviceOs);
+        }
+        return delegate.updateBedrockDevice(username, deviceId, deviceOs);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> resetVerification(String username) {
+        PlayerData cached = plugin.getCachedPlayerData(username.toLowerCase());
+        if (cached != null) {
+            cached.setVerified(false);
+        }
+        return delegate.resetVerification(username);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAccount(String username) {
+        // Drop the entry before and after, so a concurrent lookup cannot put it back
+        plugin.getPlayerCache().invalidate(username);
+        return delegate.deleteAccount(username).whenComplete((success, error) ->
+            plugin.getPlayerCache().invalidate(username));
+    }
+}
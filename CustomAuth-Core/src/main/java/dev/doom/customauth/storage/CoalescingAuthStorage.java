@@ -0,0 +1,167 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.models.AccountLookup;
+import dev.doom.customauth.models.LoginSnapshot;
+import dev.doom.customauth.models.SessionData;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses duplicate work per username. Identical reads that overlap share
+ * one query. Session writes run one at a time per username, in the order they
+ * were made. A save or expiry update that is still waiting is replaced by a
+ * newer one of the same kind for the same token; deletes are never merged or
+ * dropped.
+ */
+public class CoalescingAuthStorage extends ForwardingAuthStorage {
+    private final Map<String, CompletableFuture<?>> reads = new ConcurrentHashMap<>();
+    // Per username, the head is the write in flight
+    private final Map<String, ArrayDeque<SessionWrite>> sessionWrites = new HashMap<>();
+
+    public CoalescingAuthStorage(AuthStorage delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public CompletableFuture<AccountLookup> lookupAccount(String username) {
+        return read("account:" + username.toLowerCase(), () -> delegate.lookupAccount(username));
+    }
+
+    @Override
+    public CompletableFuture<LoginSnapshot> loadLoginSnapshot(String username, UUID uuid) {
+        return read("snapshot:" + username.toLowerCase() + ":" + uuid, () -> delegate.loadLoginSnapshot(username, uuid));
+    }
+
+    @Override
+    public CompletableFuture<SessionData> loadSession(String username) {
+        return read("session:" + username.toLowerCase(), () -> delegate.loadSession(username));
+    }
+
+    @Override
+    public CompletableFuture<Void> saveSession(SessionData session) {
+        return writeSession(session.username(), WriteKind.SAVE, session.token(), () -> delegate.saveSession(session));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateSessionExpiry(SessionData session) {
+        return writeSession(session.username(), WriteKind.EXPIRY, session.token(), () -> delegate.updateSessionExpiry(session));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteSession(String username) {
+        return writeSession(username, WriteKind.DELETE, null, () -> delegate.deleteSession(username));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAllSessions(String username) {
+        return writeSession(username, WriteKind.DELETE_ALL, null, () -> delegate.deleteAllSessions(username));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> read(String key, Supplier<CompletableFuture<T>> query) {
+        CompletableFuture<T> created = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) reads.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = query.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((result, error) -> {
+            reads.remove(key, created);
+            if (error != null) {
+                created.completeExceptionally(error);
+            } else {
+                created.complete(result);
+            }
+        });
+        return created;
+    }
+
+    private CompletableFuture<Void> writeSession(String username, WriteKind kind, String token,
+                                                 Supplier<CompletableFuture<Void>> write) {
+        String key = username.toLowerCase();
+        synchronized (sessionWrites) {
+            ArrayDeque<SessionWrite> queue = sessionWrites.get(key);
+            if (queue == null) {
+                SessionWrite started = new SessionWrite(kind, token, write);
+                queue = new ArrayDeque<>();
+                queue.add(started);
+                sessionWrites.put(key, queue);
+                run(key, started);
+                return started.result;
+            }
+
+            // Only the last waiting write can be replaced, anything else would reorder
+            SessionWrite last = queue.peekLast();
+            if (queue.size() > 1 && kind.mergeable && last.kind == kind && Objects.equals(last.token, token)) {
+                last.write = write;
+                return last.result;
+            }
+            SessionWrite queued = new SessionWrite(kind, token, write);
+            queue.add(queued);
+            return queued.result;
+        }
+    }
+
+    private void run(String key, SessionWrite current) {
+        CompletableFuture<Void> future;
+        try {
+            future = current.write.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((ignored, error) -> {
+            if (error != null) {
+                current.result.completeExceptionally(error);
+            } else {
+                current.result.complete(null);
+            }
+
+            SessionWrite following;
+            synchronized (sessionWrites) {
+                ArrayDeque<SessionWrite> queue = sessionWrites.get(key);
+                queue.poll();
+                following = queue.peek();
+                if (following == null) {
+                    sessionWrites.remove(key);
+                    return;
+                }
+            }
+            run(key, following);
+        });
+    }
+
+    private enum WriteKind {
+        SAVE(true), EXPIRY(true), DELETE(false), DELETE_ALL(false);
+
+        private final boolean mergeable;
+
+        WriteKind(boolean mergeable) {
+            this.mergeable = mergeable;
+        }
+    }
+
+    private static final class SessionWrite {
+        private final WriteKind kind;
+        private final String token;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private Supplier<CompletableFuture<Void>> write;
+
+        private SessionWrite(WriteKind kind, String token, Supplier<CompletableFuture<Void>> write) {
+            this.kind = kind;
+            this.token = token;
+            this.write = write;
+        }
+    }
+}
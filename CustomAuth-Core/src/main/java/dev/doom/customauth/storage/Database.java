@@ -4,25 +4,50 @@ package dev.doom.customauth.storage;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.AccountLookup;
+import dev.doom.customauth.models.LoginSnapshot;
 import dev.doom.customauth.models.PlayerData;
 import dev.doom.customauth.models.SessionData;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class Database {
     private final CustomAuth plugin;
+    private final SqlDialect dialect;
     private HikariDataSource dataSource;
+    private HikariDataSource readDataSource;
+    private SqliteWriter writer;
+    private ReplicaRouter replicas;
+    private LoginWriteBuffer loginWriteBuffer;
+    private PurgeJob purgeJob;
 
-    public Database(CustomAuth plugin) {
+    public Database(CustomAuth plugin, SqlDialect dialect) {
         this.plugin = plugin;
+        this.dialect = dialect;
     }
 
     public void initialize() {
         try {
             setupDataSource();
-            createTables();
+            MigrationRunner migrations = new MigrationRunner(plugin, dataSource, dialect);
+            migrations.migrate();
+            setupReaders();
+            this.loginWriteBuffer = new LoginWriteBuffer(plugin, this);
+            this.purgeJob = new PurgeJob(plugin, this);
+            migrations.runBackfills();
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to initialize database: " + e.getMessage());
             e.printStackTrace();
@@ -32,119 +57,51 @@ public class Database {
     private void setupDataSource() {
         HikariConfig config = new HikariConfig();
         
-        if (plugin.getConfig().getBoolean("storage.mysql.enabled")) {
-            // MySQL configuration
-            config.setJdbcUrl(String.format("jdbc:mysql://%s:%d/%s",
-                plugin.getConfig().getString("storage.mysql.host"),
-                plugin.getConfig().getInt("storage.mysql.port"),
-                plugin.getConfig().getString("storage.mysql.database")));
-            config.setUsername(plugin.getConfig().getString("storage.mysql.username"));
-            config.setPassword(plugin.getConfig().getString("storage.mysql.password"));
-            config.setMaximumPoolSize(plugin.getConfig().getInt("storage.mysql.pool-size", 10));
-            
-            // MySQL optimizations
-            config.addDataSourceProperty("cachePrepStmts", "true");
-            config.addDataSourceProperty("prepStmtCacheSize", "250");
-            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-            config.addDataSourceProperty("useServerPrepStmts", "true");
-            config.addDataSourceProperty("useLocalSessionState", "true");
-            config.addDataSourceProperty("rewriteBatchedStatements", "true");
-            config.addDataSourceProperty("cacheResultSetMetadata", "true");
-            config.addDataSourceProperty("cacheServerConfiguration", "true");
-            config.addDataSourceProperty("elideSetAutoCommits", "true");
-            config.addDataSourceProperty("maintainTimeStats", "false");
-        } else {
-            // SQLite configuration
-            config.setJdbcUrl("jdbc:sqlite:" + plugin.getDataFolder() + "/database.db");
-            config.setMaximumPoolSize(1); // SQLite doesn't support multiple connections well
-        }
+        dialect.configure(config, plugin);
 
         config.setPoolName("CustomAuth-Pool");
         dataSource = new HikariDataSource(config);
     }
 
-    private void createTables() {
-        String[] queries = {
-            // Players table
-            """
-            CREATE TABLE IF NOT EXISTS players (
-                username VARCHAR(16) PRIMARY KEY,
-                password VARCHAR(256) NOT NULL,
-                email VARCHAR(100),
-                last_ip VARCHAR(45),
-                last_login BIGINT,
-                registered_date BIGINT,
-                verified BOOLEAN DEFAULT FALSE,
-                is_bedrock BOOLEAN DEFAULT FALSE,
-                xuid VARCHAR(32),
-                device_id VARCHAR(64),
-                device_os VARCHAR(32),
-                verification_token VARCHAR(64)
-            )
-            """,
-            
-            // Sessions table
-            """
-            CREATE TABLE IF NOT EXISTS sessions (
-                username VARCHAR(16),
-                token VARCHAR(64),
-                expires BIGINT,
-                ip VARCHAR(45),
-                PRIMARY KEY (username, token)
-            )
-            """,
-            
-            // IP history table
-            """
-            CREATE TABLE IF NOT EXISTS ip_history (
-                ip VARCHAR(45),
-                username VARCHAR(16),
-                last_used BIGINT,
-                login_count INT DEFAULT 1,
-                PRIMARY KEY (ip, username)
-            )
-            """
-        };
-
-        try (Connection conn = dataSource.getConnection();
-             Statement stmt = conn.createStatement()) {
-            for (String query : queries) {
-                stmt.executeUpdate(query);
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to create tables: " + e.getMessage());
-            e.printStackTrace();
+    // After the migrations, read-only connections cannot create the file
+    private void setupReaders() {
+        HikariConfig config = new HikariConfig();
+        if (dialect.configureReaders(config, plugin)) {
+            config.setPoolName("CustomAuth-Readers");
+            readDataSource = new HikariDataSource(config);
         }
+        if (dialect.usesSingleWriter()) {
+            writer = new SqliteWriter(plugin, dataSource);
+        }
+        replicas = ReplicaRouter.create(plugin, dialect, dataSource);
     }
 
     public CompletableFuture<Boolean> registerPlayer(String username, String hashedPassword, String email) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "INSERT INTO players (username, password, email, registered_date) VALUES (?, ?, ?, ?)";
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sql = "INSERT INTO players (username, password, email, registered_date) VALUES (?, ?, ?, ?)";
+        return write(username, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, username.toLowerCase());
                 stmt.setString(2, hashedPassword);
                 stmt.setString(3, email);
                 stmt.setLong(4, System.currentTimeMillis());
                 return stmt.executeUpdate() > 0;
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to register player: " + e.getMessage());
-                return false;
             }
-        }, plugin.getAsyncExecutor());
+        }).exceptionally(error -> {
+            plugin.getLogger().severe("Failed to register player: " + causeOf(error));
+            return false;
+        });
     }
 
     public CompletableFuture<Boolean> registerBedrockPlayer(String username, String token, 
                                                           String xuid, String deviceId, String deviceOs) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = """
-                INSERT INTO players (
-                    username, password, registered_date, verified, is_bedrock, 
-                    xuid, device_id, device_os
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?)
-                """;
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sql = """
+            INSERT INTO players (
+                username, password, registered_date, verified, is_bedrock, 
+                xuid, device_id, device_os
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        return write(username, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, username.toLowerCase());
                 stmt.setString(2, token);
                 stmt.setLong(3, System.currentTimeMillis());
@@ -154,110 +111,676 @@ public class Database {
                 stmt.setString(7, deviceId);
                 stmt.setString(8, deviceOs);
                 return stmt.executeUpdate() > 0;
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to register Bedrock player: " + e.getMessage());
-                return false;
             }
-        }, plugin.getAsyncExecutor());
+        }).exceptionally(error -> {
+            plugin.getLogger().severe("Failed to register Bedrock player: " + causeOf(error));
+            return false;
+        });
     }
 
     public CompletableFuture<Optional<PlayerData>> getPlayerData(String username) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT * FROM players WHERE username = ?";
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sql = "SELECT * FROM players WHERE username = ?";
+        return read(username, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, username.toLowerCase());
                 ResultSet rs = stmt.executeQuery();
                 
                 if (rs.next()) {
-                    PlayerData data = new PlayerData(
-                        rs.getString("username"),
-                        rs.getString("password")
-                    );
-                    data.setEmail(rs.getString("email"));
-                    data.setLastIp(rs.getString("last_ip"));
-                    data.setLastLogin(rs.getLong("last_login"));
-                    data.setVerified(rs.getBoolean("verified"));
-                    data.setBedrockPlayer(rs.getBoolean("is_bedrock"));
-                    data.setXuid(rs.getString("xuid"));
-                    data.setDeviceId(rs.getString("device_id"));
-                    data.setDeviceOs(rs.getString("device_os"));
-                    return Optional.of(data);
+                    return Optional.of(mapPlayer(rs));
                 }
-                return Optional.empty();
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to get player data: " + e.getMessage());
-                return Optional.empty();
+                return Optional.<PlayerData>empty();
             }
-        }, plugin.getAsyncExecutor());
+        }).exceptionally(error -> {
+            plugin.getLogger().severe("Failed to get player data: " + causeOf(error));
+            return Optional.empty();
+        });
     }
 
-    public CompletableFuture<Boolean> updateLoginData(String username, String ip, long timestamp) {
-        return CompletableFuture.supplyAsync(() -> {
+    /**
+     * Existence and data in one query. Unlike {@link #getPlayerData} a failed
+     * query is reported as an error instead of "not registered".
+     */
+    public CompletableFuture<AccountLookup> lookupAccount(String username) {
+        String sql = "SELECT * FROM players WHERE username = ?";
+        return read(username, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, username.toLowerCase());
+                ResultSet rs = stmt.executeQuery();
+                return rs.next() ? AccountLookup.present(mapPlayer(rs)) : AccountLookup.absent();
+            }
+        }).exceptionally(error -> {
+            plugin.getLogger().severe("Failed to look up account: " + causeOf(error));
+            return AccountLookup.error(error);
+        });
+    }
+
+    /**
+     * Keyset pagination over usernames, so streaming millions of accounts
+     * never holds one long cursor open.
+     */
+    public CompletableFuture<List<String>> getUsernamePage(String after, int limit) {
+        String sql = "SELECT username FROM players WHERE username > ? ORDER BY username " + dialect.limit("?");
+        return read(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, after);
+                stmt.setInt(2, limit);
+                ResultSet rs = stmt.executeQuery();
+                List<String> usernames = new ArrayList<>(limit);
+                while (rs.next()) {
+                    usernames.add(rs.getString(1));
+                }
+                return usernames;
+            }
+        });
+    }
+
+    private PlayerData mapPlayer(ResultSet rs) throws SQLException {
+        PlayerData data = new PlayerData(
+            rs.getString("username"),
+            rs.getString("password")
+        );
+        data.setEmail(rs.getString("email"));
+        data.setLastIp(rs.getString("last_ip"));
+        data.setLastLogin(rs.getLong("last_login"));
+        data.setVerified(rs.getBoolean("verified"));
+        data.setBedrockPlayer(rs.getBoolean("is_bedrock"));
+        data.setXuid(rs.getString("xuid"));
+        data.setDeviceId(rs.getString("device_id"));
+        data.setDeviceOs(rs.getString("device_os"));
+        return data;
+    }
+
+    /**
+     * Buffers the login bookkeeping of a successful login, see {@link LoginWriteBuffer}.
+     */
+    public void recordLogin(String username, InetAddress address, long timestamp) {
+        loginWriteBuffer.recordLogin(username, address, timestamp);
+    }
+
+    public void recordLastSeen(String username, String ip, long timestamp) {
+        loginWriteBuffer.recordLastSeen(username, ip, timestamp);
+    }
+
+    /**
+     * Called by the write buffer, one transaction per batch. Runs on the
+     * calling thread (or the SQLite writer) and never on the async executor,
+     * because the final flush in {@link #close()} happens after that executor
+     * has been shut down.
+     */
+    void writeLoginBatch(List<LoginWriteBuffer.PendingWrite> batch) throws SQLException {
+        String playersSql = "UPDATE players SET last_ip = ?, last_login = ? WHERE username = ?";
+        String historySql = ipHistoryUpsert(dialect);
+
+        SqlWork<Void> work = conn -> inTransaction(conn, () -> {
+            try (PreparedStatement players = conn.prepareStatement(playersSql);
+                 PreparedStatement history = conn.prepareStatement(historySql)) {
+                for (LoginWriteBuffer.PendingWrite write : batch) {
+                    players.setString(1, write.ip);
+                    players.setLong(2, write.timestamp);
+                    players.setString(3, write.username);
+                    players.addBatch();
+
+                    for (var use : write.ipHistory.entrySet()) {
+                        history.setBytes(1, use.getKey().bytes());
+                        history.setString(2, write.username);
+                        history.setLong(3, use.getValue().lastUsed);
+                        history.setInt(4, use.getValue().count);
+                        history.addBatch();
+                    }
+                }
+                // On MySQL rewriteBatchedStatements turns each batch into multi-row statements
+                players.executeBatch();
+                history.executeBatch();
+            }
+            return null;
+        });
+
+        if (writer != null) {
+            writer.submit(work).join();
+        } else {
             try (Connection conn = dataSource.getConnection()) {
-                // Update player data
-                String sql1 = "UPDATE players SET last_ip = ?, last_login = ? WHERE username = ?";
-                try (PreparedStatement stmt = conn.prepareStatement(sql1)) {
-                    stmt.setString(1, ip);
-                    stmt.setLong(2, timestamp);
-                    stmt.setString(3, username.toLowerCase());
-                    stmt.executeUpdate();
+                work.run(conn);
+            }
+        }
+
+        if (replicas != null) {
+            batch.forEach(write -> replicas.pin(write.username));
+        }
+    }
+
+    // Adds login_count to the existing row and keeps the newest last_used
+    static String ipHistoryUpsert(SqlDialect dialect) {
+        return dialect.upsert("ip_addresses",
+            List.of("ip", "username", "last_used", "login_count"),
+            List.of("ip", "username"),
+            List.of(
+                "last_used = " + dialect.greatest("ip_addresses.last_used", dialect.excluded("last_used")),
+                "login_count = ip_addresses.login_count + " + dialect.excluded("login_count")
+            ));
+    }
+
+    /**
+     * Accounts that logged in from an address, most recent first. Served by
+     * the (ip, username) primary key.
+     */
+    public CompletableFuture<List<String>> getAccountsByIp(byte[] ip, int limit) {
+        String sql = "SELECT username FROM ip_addresses WHERE ip = ? ORDER BY last_used DESC " + dialect.limit("?");
+        return read(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setBytes(1, ip);
+                stmt.setInt(2, limit);
+                ResultSet rs = stmt.executeQuery();
+                List<String> usernames = new ArrayList<>();
+                while (rs.next()) {
+                    usernames.add(rs.getString(1));
                 }
+                return usernames;
+            }
+        });
+    }
 
-                // Update IP history
-                String sql2 = """
-                    INSERT INTO ip_history (ip, username, last_used, login_count)
-                    VALUES (?, ?, ?, 1)
-                    ON DUPLICATE KEY UPDATE
-                    last_used = VALUES(last_used),
-                    login_count = login_count + 1
-                    """;
-                try (PreparedStatement stmt = conn.prepareStatement(sql2)) {
-                    stmt.setString(1, ip);
-                    stmt.setString(2, username.toLowerCase());
-                    stmt.setLong(3, timestamp);
-                    stmt.executeUpdate();
+    /**
+     * Deletes up to {@code limit} sessions that expired before {@code now},
+     * one chunk of a {@link PurgeJob}. Keys are selected through the expiry
+     * index and deleted by primary key, so the statement stays short.
+     *
+     * @return sessions deleted
+     */
+    CompletableFuture<Integer> purgeExpiredSessions(long now, int limit) {
+        String selectSql = "SELECT username, token FROM sessions WHERE expires < ? ORDER BY expires " + dialect.limit("?");
+        String deleteSql = "DELETE FROM sessions WHERE username = ? AND token = ?";
+        return write(conn -> inTransaction(conn, () -> {
+            int count = 0;
+            try (PreparedStatement select = conn.prepareStatement(selectSql);
+                 PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+                select.setLong(1, now);
+                select.setInt(2, limit);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        delete.setString(1, rs.getString(1));
+                        delete.setString(2, rs.getString(2));
+                        delete.addBatch();
+                        count++;
+                    }
+                }
+                if (count > 0) {
+                    delete.executeBatch();
                 }
+            }
+            return count;
+        }));
+    }
 
-                return true;
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to update login data: " + e.getMessage());
-                return false;
+    /**
+     * Deletes up to {@code limit} accounts that last logged in before
+     * {@code cutoff}, together with their sessions and IP history.
+     *
+     * @return the usernames deleted
+     */
+    CompletableFuture<List<String>> purgeInactiveAccounts(long cutoff, int limit) {
+        String selectSql = "SELECT username FROM players WHERE last_login < ? ORDER BY last_login " + dialect.limit("?");
+        return write(conn -> inTransaction(conn, () -> {
+            List<String> usernames = new ArrayList<>();
+            try (PreparedStatement select = conn.prepareStatement(selectSql)) {
+                select.setLong(1, cutoff);
+                select.setInt(2, limit);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        usernames.add(rs.getString(1));
+                    }
+                }
+            }
+            if (usernames.isEmpty()) {
+                return usernames;
+            }
+
+            for (String table : List.of("sessions", "password_resets", "ip_history", "ip_addresses", "players")) {
+                try (PreparedStatement delete = conn.prepareStatement("DELETE FROM " + table + " WHERE username = ?")) {
+                    for (String username : usernames) {
+                        delete.setString(1, username);
+                        delete.addBatch();
+                    }
+                    delete.executeBatch();
+                }
+            }
+            return usernames;
+        }));
+    }
+
+    /**
+     * Deletes up to {@code limit} IP history entries last used before
+     * {@code cutoff}, one chunk of the retention purge.
+     *
+     * @return entries deleted
+     */
+    CompletableFuture<Integer> purgeIpHistory(long cutoff, int limit) {
+        String selectSql = "SELECT ip, username FROM ip_addresses WHERE last_used < ? ORDER BY last_used " + dialect.limit("?");
+        String deleteSql = "DELETE FROM ip_addresses WHERE ip = ? AND username = ?";
+        return write(conn -> inTransaction(conn, () -> {
+            int count = 0;
+            try (PreparedStatement select = conn.prepareStatement(selectSql);
+                 PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+                select.setLong(1, cutoff);
+                select.setInt(2, limit);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        delete.setBytes(1, rs.getBytes(1));
+                        delete.setString(2, rs.getString(2));
+                        delete.addBatch();
+                        count++;
+                    }
+                }
+                if (count > 0) {
+                    delete.executeBatch();
+                }
+            }
+            return count;
+        }));
+    }
+
+    /**
+     * Runs work as one transaction. The SQLite writer already runs every write
+     * inside its group transaction, so there the work just joins it.
+     */
+    private static <T> T inTransaction(Connection conn, SqlCall<T> work) throws SQLException {
+        boolean ownTransaction = conn.getAutoCommit();
+        if (ownTransaction) {
+            conn.setAutoCommit(false);
+        }
+        try {
+            T result = work.call();
+            if (ownTransaction) {
+                conn.commit();
+            }
+            return result;
+        } catch (SQLException e) {
+            if (ownTransaction) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            if (ownTransaction) {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    public PurgeJob getPurgeJob() {
+        return purgeJob;
+    }
+
+    /**
+     * Inserts one batch of account rows, skipping names that already exist,
+     * see {@link AccountTransfer}.
+     */
+    public CompletableFuture<Integer> importAccounts(List<String[]> rows) {
+        return write(conn -> AccountTransfer.importRows(conn, dialect, rows)).whenComplete((imported, error) -> {
+            if (error != null) {
+                plugin.getLogger().severe("Failed to import " + rows.size() + " accounts: " + causeOf(error));
+            }
+        });
+    }
+
+    /**
+     * Streams every account to a CSV file that {@link #importAccounts} can restore.
+     */
+    public CompletableFuture<Long> exportAccounts(File file) {
+        int pageSize = Math.max(1, plugin.getConfig().getInt("storage.bulk.batch_size", 10000));
+        return read(conn -> {
+            try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                return AccountTransfer.export(conn, dialect, out, pageSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((exported, error) -> {
+            if (error != null) {
+                plugin.getLogger().severe("Failed to export accounts: " + causeOf(error));
             }
-        }, plugin.getAsyncExecutor());
+        });
+    }
+
+    public LoginWriteBuffer getLoginWriteBuffer() {
+        return loginWriteBuffer;
     }
 
     public CompletableFuture<Boolean> updateBedrockDeviceInfo(String username, String deviceId, String deviceOs) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "UPDATE players SET device_id = ?, device_os = ? WHERE username = ?";
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sql = "UPDATE players SET device_id = ?, device_os = ? WHERE username = ?";
+        return write(username, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, deviceId);
                 stmt.setString(2, deviceOs);
                 stmt.setString(3, username.toLowerCase());
                 return stmt.executeUpdate() > 0;
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to update Bedrock device info: " + e.getMessage());
-                return false;
             }
-        }, plugin.getAsyncExecutor());
+        }).exceptionally(error -> {
+            plugin.getLogger().severe("Failed to update Bedrock device info: " + causeOf(error));
+            return false;
+        });
     }
 
     public CompletableFuture<Boolean> deletePlayer(String username) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "DELETE FROM players WHERE username = ?";
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sql = "DELETE FROM players WHERE username = ?";
+        return write(username, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, username.toLowerCase());
                 return stmt.executeUpdate() > 0;
+            }
+        }).exceptionally(error -> {
+            plugin.getLogger().severe("Failed to delete player: " + causeOf(error));
+            return false;
+        });
+    }
+
+    public CompletableFuture<Boolean> updatePassword(String username, String hashedPassword) {
+        String sql = "UPDATE players SET password = ? WHERE username = ?";
+        return write(username, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, hashedPassword);
+                stmt.setString(2, username.toLowerCase());
+                return stmt.executeUpdate() > 0;
+            }
+        }).exceptionally(error -> {
+            plugin.getLogger().severe("Failed to update password: " + causeOf(error));
+            return false;
+        });
+    }
+
+    /**
+     * Marks the email unverified again and drops any pending verification token.
+     */
+    public CompletableFuture<Boolean> reset2FA(String username) {
+        String sql = "UPDATE players SET verified = ?, verification_token = NULL WHERE username = ?";
+        return write(username, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setBoolean(1, false);
+                stmt.setString(2, username.toLowerCase());
+                return stmt.executeUpdate() > 0;
+            }
+        }).exceptionally(error -> {
+            plugin.getLogger().severe("Failed to reset verification: " + causeOf(error));
+            return false;
+        });
+    }
+
+    // Session writes fail their future instead of reporting false, so retries and callers see the error
+
+    public CompletableFuture<Void> saveSession(String username, String token, long expiry, String ip) {
+        String sql = dialect.upsert("sessions",
+            List.of("username", "token", "expires", "ip"),
+            List.of("username", "token"),
+            List.of("expires = " + dialect.excluded("expires"), "ip = " + dialect.excluded("ip")));
+        return logged("save session", write(username, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, username.toLowerCase());
+                stmt.setString(2, token);
+                stmt.setLong(3, expiry);
+                stmt.setString(4, ip);
+                stmt.executeUpdate();
+                return null;
+            }
+        }));
+    }
+
+    public CompletableFuture<Void> updateSessionExpiry(String username, String token, long expiry) {
+        String sql = "UPDATE sessions SET expires = ? WHERE username = ? AND token = ?";
+        return logged("update session expiry", write(username, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, expiry);
+                stmt.setString(2, username.toLowerCase());
+                stmt.setString(3, token);
+                stmt.executeUpdate();
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * The newest unexpired session. Sessions are stored without a UUID, so
+     * the returned one has none and is checked by IP and expiry only, like
+     * the one in {@link #loadLoginSnapshot}.
+     */
+    public CompletableFuture<SessionData> getSession(String username) {
+        String sql = "SELECT token, expires, ip FROM sessions WHERE username = ? AND expires > ? ORDER BY expires DESC "
+            + dialect.limit("1");
+        return logged("load session", read(username, conn -> {
+            long now = System.currentTimeMillis();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, username.toLowerCase());
+                stmt.setLong(2, now);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    return new SessionData(username.toLowerCase(), rs.getString("token"),
+                        rs.getLong("expires"), rs.getString("ip"), null, now);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Ends the player's session. Without a token to tell them apart, older
+     * sessions from earlier logins go too, none of them may resume once the
+     * player logged out.
+     */
+    public CompletableFuture<Void> deleteSession(String username) {
+        return deleteAllSessions(username);
+    }
+
+    public CompletableFuture<Void> deleteAllSessions(String username) {
+        String sql = "DELETE FROM sessions WHERE username = ?";
+        return logged("delete sessions", write(username, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, username.toLowerCase());
+                stmt.executeUpdate();
+                return null;
+            }
+        }));
+    }
+
+    public CompletableFuture<Void> saveVerificationToken(String username, String token) {
+        String sql = "UPDATE players SET verification_token = ? WHERE username = ?";
+        return logged("save verification token", write(username, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, token);
+                stmt.setString(2, username.toLowerCase());
+                if (stmt.executeUpdate() == 0) {
+                    throw new SQLException("No account " + username.toLowerCase());
+                }
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Consumes a verification token and marks its account verified.
+     *
+     * @return false if no account holds the token
+     */
+    public CompletableFuture<Boolean> verifyEmailToken(String token) {
+        String sql = "UPDATE players SET verified = ?, verification_token = NULL WHERE verification_token = ?";
+        return write(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setBoolean(1, true);
+                stmt.setString(2, token);
+                return stmt.executeUpdate() > 0;
+            }
+        }).exceptionally(error -> {
+            plugin.getLogger().severe("Failed to verify email token: " + causeOf(error));
+            return false;
+        });
+    }
+
+    /**
+     * Stores the player's reset token, replacing one they requested before.
+     */
+    public CompletableFuture<Void> saveResetToken(String username, String token, long expiry) {
+        String sql = dialect.upsert("password_resets",
+            List.of("username", "token", "expires"),
+            List.of("username"),
+            List.of("token = " + dialect.excluded("token"), "expires = " + dialect.excluded("expires")));
+        return logged("save reset token", write(username, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, username.toLowerCase());
+                stmt.setString(2, token);
+                stmt.setLong(3, expiry);
+                stmt.executeUpdate();
+                return null;
+            }
+        }));
+    }
+
+    private <T> CompletableFuture<T> logged(String action, CompletableFuture<T> future) {
+        return future.whenComplete((result, error) -> {
+            if (error != null) {
+                plugin.getLogger().severe("Failed to " + action + ": " + causeOf(error));
+            }
+        });
+    }
+
+    /**
+     * Loads the account and its newest unexpired session in a single query.
+     * The sessions table has no uuid column, so the session is bound to the
+     * connecting UUID and validated by IP and expiry.
+     */
+    public CompletableFuture<LoginSnapshot> loadLoginSnapshot(String username, UUID uuid) {
+        String sql = """
+            SELECT p.*, s.token AS session_token, s.expires AS session_expires, s.ip AS session_ip
+            FROM players p
+            LEFT JOIN sessions s ON s.username = p.username AND s.expires > ?
+            WHERE p.username = ?
+            ORDER BY s.expires DESC
+            %s
+            """.formatted(dialect.limit("1"));
+        return read(username, conn -> {
+            long now = System.currentTimeMillis();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, now);
+                stmt.setString(2, username.toLowerCase());
+                ResultSet rs = stmt.executeQuery();
+
+                if (!rs.next()) {
+                    return new LoginSnapshot(username.toLowerCase(), null, null, now);
+                }
+
+                PlayerData data = mapPlayer(rs);
+                SessionData session = null;
+                String token = rs.getString("session_token");
+                if (token != null) {
+                    session = new SessionData(
+                        data.getUsername(),
+                        token,
+                        rs.getLong("session_expires"),
+                        rs.getString("session_ip"),
+                        uuid,
+                        now
+                    );
+                }
+                return new LoginSnapshot(username.toLowerCase(), data, session, now);
+            }
+        }).whenComplete((snapshot, error) -> {
+            if (error != null) {
+                plugin.getLogger().severe("Failed to load login snapshot: " + causeOf(error));
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> read(SqlWork<T> work) {
+        return read(null, work);
+    }
+
+    /**
+     * Runs a query on a reader connection. SQLite has a separate read-only
+     * pool so reads never wait behind the writer, MySQL reads go to a replica
+     * unless the username was written moments ago.
+     */
+    private <T> CompletableFuture<T> read(String username, SqlWork<T> work) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                if (replicas != null) {
+                    return replicas.read(username, work);
+                }
+                HikariDataSource source = readDataSource != null ? readDataSource : dataSource;
+                try (Connection conn = source.getConnection()) {
+                    return work.run(conn);
+                }
             } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to delete player: " + e.getMessage());
-                return false;
+                throw new CompletionException(e);
             }
-        }, plugin.getAsyncExecutor());
+        }, plugin.getDatabaseExecutor());
+    }
+
+    private <T> CompletableFuture<T> write(SqlWork<T> work) {
+        return write(null, work);
+    }
+
+    /**
+     * Runs a mutation. On SQLite it is queued for the writer thread and
+     * grouped with other writes into one transaction. With replicas the
+     * username is pinned to the primary for the next few reads.
+     */
+    private <T> CompletableFuture<T> write(String username, SqlWork<T> work) {
+        if (writer != null) {
+            return writer.submit(work);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                if (replicas != null) {
+                    return replicas.write(username, work);
+                }
+                try (Connection conn = dataSource.getConnection()) {
+                    return work.run(conn);
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, plugin.getDatabaseExecutor());
+    }
+
+    private static String causeOf(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage();
+    }
+
+    @FunctionalInterface
+    interface SqlWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    public SqliteWriter getWriter() {
+        return writer;
+    }
+
+    public ReplicaRouter getReplicas() {
+        return replicas;
     }
 
     public void close() {
+        if (purgeJob != null) {
+            purgeJob.stop();
+        }
+        // Drain buffered login writes while the pool is still open
+        if (loginWriteBuffer != null && dataSource != null && !dataSource.isClosed()) {
+            loginWriteBuffer.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+        if (replicas != null) {
+            replicas.close();
+        }
+        if (readDataSource != null && !readDataSource.isClosed()) {
+            readDataSource.close();
+        }
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
         }
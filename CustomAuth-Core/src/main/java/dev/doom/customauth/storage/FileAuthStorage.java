@@ -0,0 +1,181 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.AccountLookup;
+import dev.doom.customauth.models.LoginSnapshot;
+import dev.doom.customauth.models.PlayerData;
+import dev.doom.customauth.models.SessionData;
+import java.net.InetAddress;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link AuthStorage} on top of the YAML {@link FileStorage}. Its calls are
+ * blocking file I/O, so they run on the async executor. Email and reset
+ * tokens are kept in the player's file.
+ */
+public class FileAuthStorage implements AuthStorage {
+    private final CustomAuth plugin;
+    private final FileStorage fileStorage;
+
+    public FileAuthStorage(CustomAuth plugin, FileStorage fileStorage) {
+        this.plugin = plugin;
+        this.fileStorage = fileStorage;
+    }
+
+    @Override
+    public String getName() {
+        return "File";
+    }
+
+    @Override
+    public CompletableFuture<AccountLookup> lookupAccount(String username) {
+        return async(() -> fileStorage.lookupAccount(username));
+    }
+
+    @Override
+    public CompletableFuture<LoginSnapshot> loadLoginSnapshot(String username, UUID uuid) {
+        return async(() -> {
+            String name = username.toLowerCase();
+            PlayerData data = fileStorage.lookupAccount(name).orNull();
+            boolean persistSessions = plugin.getConfig().getBoolean("session.persist", true);
+            SessionData session = data != null && persistSessions ? fileStorage.loadSession(name) : null;
+            return new LoginSnapshot(name, data, session, System.currentTimeMillis());
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> registerAccount(PlayerData data) {
+        fileStorage.queueSave(data);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updatePassword(String username, String hashedPassword) {
+        return modify(username, data -> data.setHashedPassword(hashedPassword));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateBedrockDevice(String username, String deviceId, String deviceOs) {
+        return async(() -> {
+            fileStorage.updateBedrockData(username, deviceId, deviceOs);
+            return true;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> resetVerification(String username) {
+        return modify(username, data -> data.setVerified(false));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAccount(String username) {
+        return async(() -> {
+            fileStorage.deletePlayer(username);
+            return true;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> forEachUsername(Consumer<String> action) {
+        return CompletableFuture.runAsync(() -> fileStorage.forEachUsername(action), plugin.getAsyncExecutor());
+    }
+
+    @Override
+    public void recordLogin(String username, InetAddress address, long timestamp) {
+        recordLastSeen(username, address.getHostAddress(), timestamp);
+    }
+
+    @Override
+    public void recordLastSeen(String username, String ip, long timestamp) {
+        plugin.getAsyncExecutor().execute(() -> fileStorage.updateLoginData(username, ip, timestamp));
+    }
+
+    @Override
+    public CompletableFuture<Void> saveSession(SessionData session) {
+        return CompletableFuture.runAsync(() -> fileStorage.saveSession(session), plugin.getAsyncExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Void> updateSessionExpiry(SessionData session) {
+        return saveSession(session);
+    }
+
+    @Override
+    public CompletableFuture<SessionData> loadSession(String username) {
+        return async(() -> fileStorage.loadSession(username.toLowerCase()));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteSession(String username) {
+        return CompletableFuture.runAsync(() -> fileStorage.deleteSession(username.toLowerCase()), plugin.getAsyncExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAllSessions(String username) {
+        return CompletableFuture.runAsync(() -> fileStorage.deleteAllSessions(username.toLowerCase()), plugin.getAsyncExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Void> cleanupExpiredSessions(long now) {
+        return CompletableFuture.runAsync(() -> fileStorage.cleanupExpiredSessions(now), plugin.getAsyncExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Void> saveVerificationToken(String username, String token) {
+        return CompletableFuture.runAsync(() -> fileStorage.saveVerificationToken(username, token), plugin.getAsyncExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> verifyEmailToken(String token) {
+        return async(() -> {
+            String username = fileStorage.verifyEmailToken(token);
+            if (username == null) {
+                return false;
+            }
+            // Or the next queued save writes the old flag back
+            PlayerData cached = plugin.getCachedPlayerData(username);
+            if (cached != null) {
+                cached.setVerified(true);
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> saveResetToken(String username, String token, long expiry) {
+        return CompletableFuture.runAsync(() -> fileStorage.saveResetToken(username, token, expiry), plugin.getAsyncExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Void> cleanup() {
+        return CompletableFuture.runAsync(fileStorage::cleanup, plugin.getAsyncExecutor());
+    }
+
+    @Override
+    public void close() {
+        fileStorage.saveAll();
+    }
+
+    private CompletableFuture<Boolean> modify(String username, Consumer<PlayerData> change) {
+        return async(() -> {
+            // The cached copy may hold changes still waiting in the save queue
+            PlayerData data = plugin.getCachedPlayerData(username.toLowerCase());
+            if (data == null) {
+                data = fileStorage.loadPlayer(username);
+            }
+            if (data == null) {
+                return false;
+            }
+            change.accept(data);
+            fileStorage.queueSave(data);
+            return true;
+        });
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, plugin.getAsyncExecutor());
+    }
+}
@@ -2,16 +2,24 @@
 package dev.doom.customauth.storage;
 
 import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.AccountLookup;
 import dev.doom.customauth.models.PlayerData;
+import dev.doom.customauth.models.SessionData;
 import org.bukkit.configuration.file.YamlConfiguration;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 public class FileStorage {
     private final CustomAuth plugin;
@@ -52,67 +60,112 @@ public class FileStorage {
     private void saveBatch(List<PlayerData> batch) {
         for (PlayerData data : batch) {
             try {
-                File playerFile = new File(dataFolder, data.getUsername().toLowerCase() + ".yml");
-                YamlConfiguration config = new YamlConfiguration();
-
-                // Basic data
-                config.set("username", data.getUsername());
-                config.set("password", data.getHashedPassword());
-                config.set("email", data.getEmail());
-                config.set("lastIp", data.getLastIp());
-                config.set("lastLogin", data.getLastLogin());
-                config.set("verified", data.isVerified());
-
-                // Bedrock data
-                config.set("bedrock.isBedrockPlayer", data.isBedrockPlayer());
-                config.set("bedrock.xuid", data.getXuid());
-                config.set("bedrock.deviceId", data.getDeviceId());
-                config.set("bedrock.deviceOs", data.getDeviceOs());
-
-                config.save(playerFile);
-                playerData.put(data.getUsername().toLowerCase(), config);
+                String name = data.getUsername().toLowerCase();
+                File playerFile = new File(dataFolder, name + ".yml");
+                // Start from the file, so keys only it holds (tokens) survive the save
+                YamlConfiguration config = playerData.computeIfAbsent(name, k -> playerFile.exists()
+                    ? YamlConfiguration.loadConfiguration(playerFile) : new YamlConfiguration());
+                synchronized (config) {
+                    writePlayer(config, data);
+                    config.save(playerFile);
+                }
             } catch (IOException e) {
                 plugin.getLogger().severe("Failed to save player data: " + e.getMessage());
             }
         }
     }
 
+    private static void writePlayer(YamlConfiguration config, PlayerData data) {
+        // Basic data
+        config.set("username", data.getUsername());
+        config.set("password", data.getHashedPassword());
+        config.set("email", data.getEmail());
+        config.set("lastIp", data.getLastIp());
+        config.set("lastLogin", data.getLastLogin());
+        config.set("verified", data.isVerified());
+
+        // Bedrock data
+        config.set("bedrock.isBedrockPlayer", data.isBedrockPlayer());
+        config.set("bedrock.xuid", data.getXuid());
+        config.set("bedrock.deviceId", data.getDeviceId());
+        config.set("bedrock.deviceOs", data.getDeviceOs());
+    }
+
     public void queueSave(PlayerData data) {
         saveQueue.offer(data);
     }
 
     public PlayerData loadPlayer(String username) {
         try {
-            File playerFile = new File(dataFolder, username.toLowerCase() + ".yml");
-            if (!playerFile.exists()) {
-                return null;
-            }
+            return readPlayer(username);
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to load player data: " + e.getMessage());
+            return null;
+        }
+    }
 
-            YamlConfiguration config = playerData.computeIfAbsent(username.toLowerCase(),
-                k -> YamlConfiguration.loadConfiguration(playerFile));
+    /**
+     * One file read instead of an exists check followed by a parse.
+     */
+    public AccountLookup lookupAccount(String username) {
+        try {
+            PlayerData data = readPlayer(username);
+            return data != null ? AccountLookup.present(data) : AccountLookup.absent();
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to look up account: " + e.getMessage());
+            return AccountLookup.error(e);
+        }
+    }
 
-            PlayerData data = new PlayerData(
-                config.getString("username"),
-                config.getString("password")
-            );
+    private PlayerData readPlayer(String username) {
+        File playerFile = new File(dataFolder, username.toLowerCase() + ".yml");
+        if (!playerFile.exists()) {
+            return null;
+        }
 
-            // Load basic data
-            data.setEmail(config.getString("email"));
-            data.setLastIp(config.getString("lastIp"));
-            data.setLastLogin(config.getLong("lastLogin"));
-            data.setVerified(config.getBoolean("verified"));
+        YamlConfiguration config = playerData.computeIfAbsent(username.toLowerCase(),
+            k -> YamlConfiguration.loadConfiguration(playerFile));
 
-            // Load Bedrock data
-            data.setBedrockPlayer(config.getBoolean("bedrock.isBedrockPlayer"));
-            data.setXuid(config.getString("bedrock.xuid"));
-            data.setDeviceId(config.getString("bedrock.deviceId"));
-            data.setDeviceOs(config.getString("bedrock.deviceOs"));
+        // loadConfiguration swallows parse errors and hands back an empty config
+        if (config.getString("password") == null) {
+            playerData.remove(username.toLowerCase());
+            throw new IllegalStateException("Unreadable player file " + playerFile.getName());
+        }
 
-            return data;
-        } catch (Exception e) {
-            plugin.getLogger().severe("Failed to load player data: " + e.getMessage());
-            return null;
+        PlayerData data = new PlayerData(
+            config.getString("username"),
+            config.getString("password")
+        );
+
+        // Load basic data
+        data.setEmail(config.getString("email"));
+        data.setLastIp(config.getString("lastIp"));
+        data.setLastLogin(config.getLong("lastLogin"));
+        data.setVerified(config.getBoolean("verified"));
+
+        // Load Bedrock data
+        data.setBedrockPlayer(config.getBoolean("bedrock.isBedrockPlayer"));
+        data.setXuid(config.getString("bedrock.xuid"));
+        data.setDeviceId(config.getString("bedrock.deviceId"));
+        data.setDeviceOs(config.getString("bedrock.deviceOs"));
+
+        return data;
+    }
+
+    /**
+     * Streams every stored username from the file names, without parsing
+     * any player file. Saves that are still queued are included.
+     */
+    public void forEachUsername(Consumer<String> action) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dataFolder.toPath(), "*.yml")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                action.accept(name.substring(0, name.length() - 4));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        saveQueue.forEach(data -> action.accept(data.getUsername().toLowerCase()));
     }
 
     public void deletePlayer(String username) {
@@ -166,6 +219,148 @@ public class FileStorage {
         }
     }
 
+    // The player's one session lives in their file; it is replaced on every login
+
+    public void saveSession(SessionData session) {
+        updateFile(session.username(), config -> {
+            config.set("session.token", session.token());
+            config.set("session.expiry", session.expiry());
+            config.set("session.ip", session.ip());
+            config.set("session.uuid", session.uuid() != null ? session.uuid().toString() : null);
+            config.set("session.createdAt", session.createdAt());
+        });
+    }
+
+    /**
+     * @return the player's session, or null if they have none or it expired
+     */
+    public SessionData loadSession(String username) {
+        String name = username.toLowerCase();
+        File playerFile = new File(dataFolder, name + ".yml");
+        if (!playerFile.exists()) {
+            return null;
+        }
+        YamlConfiguration config = playerData.computeIfAbsent(name, k -> YamlConfiguration.loadConfiguration(playerFile));
+        synchronized (config) {
+            String token = config.getString("session.token");
+            long expiry = config.getLong("session.expiry");
+            if (token == null || expiry <= System.currentTimeMillis()) {
+                return null;
+            }
+            String uuid = config.getString("session.uuid");
+            return new SessionData(name, token, expiry, config.getString("session.ip"),
+                uuid != null ? UUID.fromString(uuid) : null, config.getLong("session.createdAt"));
+        }
+    }
+
+    public void deleteSession(String username) {
+        if (new File(dataFolder, username.toLowerCase() + ".yml").exists()) {
+            updateFile(username, config -> config.set("session", null));
+        }
+    }
+
+    // Only one session is stored per player
+    public void deleteAllSessions(String username) {
+        deleteSession(username);
+    }
+
+    /**
+     * Drops expired sessions from the loaded files. Files that are not loaded
+     * keep theirs until the next load, which ignores expired sessions anyway.
+     */
+    public void cleanupExpiredSessions(long now) {
+        for (String name : playerData.keySet()) {
+            YamlConfiguration config = playerData.get(name);
+            if (config == null) {
+                continue;
+            }
+            boolean expired;
+            synchronized (config) {
+                expired = config.contains("session") && config.getLong("session.expiry") <= now;
+            }
+            if (expired) {
+                updateFile(name, loaded -> loaded.set("session", null));
+            }
+        }
+    }
+
+    // Tokens are written straight to the player's file, next to the account they belong to
+
+    public void saveVerificationToken(String username, String token) {
+        updateFile(username, config -> config.set("tokens.verification", token));
+    }
+
+    public void saveResetToken(String username, String token, long expiry) {
+        updateFile(username, config -> {
+            config.set("tokens.reset.token", token);
+            config.set("tokens.reset.expiry", expiry);
+        });
+    }
+
+    /**
+     * Consumes a verification token and marks its account verified.
+     *
+     * @return the account's username, or null if no account holds the token
+     */
+    public String verifyEmailToken(String token) {
+        String username = findByToken("tokens.verification", token);
+        if (username != null) {
+            updateFile(username, config -> {
+                config.set("tokens.verification", null);
+                config.set("verified", true);
+            });
+        }
+        return username;
+    }
+
+    // Loaded files first, then a plain text search so only a likely match gets parsed
+    private String findByToken(String path, String token) {
+        for (Map.Entry<String, YamlConfiguration> entry : playerData.entrySet()) {
+            synchronized (entry.getValue()) {
+                if (token.equals(entry.getValue().getString(path))) {
+                    return entry.getKey();
+                }
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dataFolder.toPath(), "*.yml")) {
+            for (Path file : files) {
+                if (Files.readString(file).contains(token)
+                        && token.equals(YamlConfiguration.loadConfiguration(file.toFile()).getString(path))) {
+                    String name = file.getFileName().toString();
+                    return name.substring(0, name.length() - 4);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
+    private void updateFile(String username, Consumer<YamlConfiguration> change) {
+        String name = username.toLowerCase();
+        File playerFile = new File(dataFolder, name + ".yml");
+        if (!playerFile.exists()) {
+            // A new account may still be waiting in the save queue
+            PlayerData queued = saveQueue.stream()
+                .filter(data -> data.getUsername().equalsIgnoreCase(name))
+                .findFirst().orElse(null);
+            if (queued == null) {
+                throw new IllegalStateException("No account " + name);
+            }
+            saveBatch(List.of(queued));
+        }
+
+        YamlConfiguration config = playerData.computeIfAbsent(name, k -> YamlConfiguration.loadConfiguration(playerFile));
+        synchronized (config) {
+            change.accept(config);
+            try {
+                config.save(playerFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
     public void clearCache() {
         playerData.clear();
     }
@@ -0,0 +1,136 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.models.AccountLookup;
+import dev.doom.customauth.models.LoginSnapshot;
+import dev.doom.customauth.models.PlayerData;
+import dev.doom.customauth.models.SessionData;
+import java.net.InetAddress;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Base for decorators: passes every call through to the wrapped storage, so
+ * a decorator only overrides what it changes.
+ */
+public abstract class ForwardingAuthStorage implements AuthStorage {
+    protected final AuthStorage delegate;
+
+    protected ForwardingAuthStorage(AuthStorage delegate) {
+        this.delegate = delegate;
+    }
+
+    public AuthStorage getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public CompletableFuture<AccountLookup> lookupAccount(String username) {
+        return delegate.lookupAccount(username);
+    }
+
+    @Override
+    public CompletableFuture<LoginSnapshot> loadLoginSnapshot(String username, UUID uuid) {
+        return delegate.loadLoginSnapshot(username, uuid);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> registerAccount(PlayerData data) {
+        return delegate.registerAccount(data);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updatePassword(String username, String hashedPassword) {
+        return delegate.updatePassword(username, hashedPassword);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateBedrockDevice(String username, String deviceId, String deviceOs) {
+        return delegate.updateBedrockDevice(username, deviceId, deviceOs);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> resetVerification(String username) {
+        return delegate.resetVerification(username);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAccount(String username) {
+        return delegate.deleteAccount(username);
+    }
+
+    @Override
+    public CompletableFuture<Void> forEachUsername(Consumer<String> action) {
+        return delegate.forEachUsername(action);
+    }
+
+    @Override
+    public void recordLogin(String username, InetAddress address, long timestamp) {
+        delegate.recordLogin(username, address, timestamp);
+    }
+
+    @Override
+    public void recordLastSeen(String username, String ip, long timestamp) {
+        delegate.recordLastSeen(username, ip, timestamp);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveSession(SessionData session) {
+        return delegate.saveSession(session);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateSessionExpiry(SessionData session) {
+        return delegate.updateSessionExpiry(session);
+    }
+
+    @Override
+    public CompletableFuture<SessionData> loadSession(String username) {
+        return delegate.loadSession(username);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteSession(String username) {
+        return delegate.deleteSession(username);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAllSessions(String username) {
+        return delegate.deleteAllSessions(username);
+    }
+
+    @Override
+    public CompletableFuture<Void> cleanupExpiredSessions(long now) {
+        return delegate.cleanupExpiredSessions(now);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveVerificationToken(String username, String token) {
+        return delegate.saveVerificationToken(username, token);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> verifyEmailToken(String token) {
+        return delegate.verifyEmailToken(token);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveResetToken(String username, String token, long expiry) {
+        return delegate.saveResetToken(username, token, expiry);
+    }
+
+    @Override
+    public CompletableFuture<Void> cleanup() {
+        return delegate.cleanup();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
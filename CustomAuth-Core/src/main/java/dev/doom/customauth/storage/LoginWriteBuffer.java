@@ -0,0 +1,184 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.utils.SecurityUtils;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for login bookkeeping (last IP, last login and IP
+ * history). Updates are coalesced per username and written once per flush
+ * interval as JDBC batches in a single transaction, instead of two statements
+ * on their own connection for every login and quit.
+ * <p>
+ * A failed flush puts its entries back, merged with anything recorded since,
+ * so nothing is lost short of a crash within one interval.
+ */
+public class LoginWriteBuffer {
+    private final CustomAuth plugin;
+    private final Database database;
+    private final Map<String, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final int maxBatch;
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    public LoginWriteBuffer(CustomAuth plugin, Database database) {
+        this.plugin = plugin;
+        this.database = database;
+        this.maxBatch = Math.max(1, plugin.getConfig().getInt("storage.write_behind.max_batch", 1000));
+
+        long interval = Math.max(1, plugin.getConfig().getLong("storage.write_behind.flush_interval", 5)) * 20L;
+        plugin.scheduleTask(this::flush, interval, interval);
+    }
+
+    /**
+     * Records a successful login: updates the account and counts the IP.
+     */
+    public void recordLogin(String username, InetAddress address, long timestamp) {
+        IpKey ip = new IpKey(SecurityUtils.ipToBytes(address));
+        record(username, address.getHostAddress(), timestamp, ip);
+    }
+
+    /**
+     * Records the latest login data without counting another login, e.g. on quit.
+     */
+    public void recordLastSeen(String username, String ip, long timestamp) {
+        record(username, ip, timestamp, null);
+    }
+
+    private void record(String username, String ip, long timestamp, IpKey loginFrom) {
+        recorded.increment();
+        pending.compute(username.toLowerCase(), (name, write) -> {
+            if (write == null) {
+                write = new PendingWrite(name);
+            }
+            write.update(ip, timestamp);
+            if (loginFrom != null) {
+                write.countLogin(loginFrom, timestamp, 1);
+            }
+            return write;
+        });
+    }
+
+    /**
+     * Writes everything buffered so far. Runs on the flush timer and once,
+     * synchronously, when the database is closed.
+     */
+    public synchronized void flush() {
+        while (!pending.isEmpty()) {
+            List<PendingWrite> batch = new ArrayList<>(Math.min(pending.size(), maxBatch));
+            Iterator<String> names = pending.keySet().iterator();
+            while (names.hasNext() && batch.size() < maxBatch) {
+                PendingWrite write = pending.remove(names.next());
+                if (write != null) {
+                    batch.add(write);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                database.writeLoginBatch(batch);
+                written.add(batch.size());
+                flushes.increment();
+            } catch (Exception e) {
+                plugin.getLogger().warning("Failed to write " + batch.size() + " login updates, retrying next flush: " + e.getMessage());
+                batch.forEach(this::requeue);
+                return;
+            }
+        }
+    }
+
+    /**
+     * The final flush on shutdown. There is no next flush to retry in, so
+     * anything that could not be written is reported instead of requeued
+     * silently.
+     */
+    public void close() {
+        flush();
+        if (!pending.isEmpty()) {
+            plugin.getLogger().severe("Lost " + pending.size()
+                + " buffered login updates (last IP, last login, IP history) on shutdown");
+        }
+    }
+
+    private void requeue(PendingWrite failed) {
+        pending.merge(failed.username, failed, (newer, older) -> {
+            // Keep the newer login data, add up the IP counts of both
+            if (older.timestamp > newer.timestamp) {
+                newer.update(older.ip, older.timestamp);
+            }
+            older.ipHistory.forEach((ip, use) -> newer.countLogin(ip, use.lastUsed, use.count));
+            return newer;
+        });
+    }
+
+    public int getPending() {
+        return pending.size();
+    }
+
+    public long getRecorded() {
+        return recorded.sum();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    static final class PendingWrite {
+        final String username;
+        final Map<IpKey, IpUse> ipHistory = new HashMap<>();
+        String ip;
+        long timestamp;
+
+        private PendingWrite(String username) {
+            this.username = username;
+        }
+
+        private void update(String ip, long timestamp) {
+            if (timestamp >= this.timestamp) {
+                this.ip = ip;
+                this.timestamp = timestamp;
+            }
+        }
+
+        private void countLogin(IpKey ip, long lastUsed, int count) {
+            IpUse use = ipHistory.computeIfAbsent(ip, key -> new IpUse());
+            use.lastUsed = Math.max(use.lastUsed, lastUsed);
+            use.count += count;
+        }
+    }
+
+    /**
+     * The 16-byte address as a map key, arrays only have identity equality.
+     */
+    record IpKey(byte[] bytes) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof IpKey key && Arrays.equals(bytes, key.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(bytes);
+        }
+    }
+
+    static final class IpUse {
+        long lastUsed;
+        int count;
+    }
+}
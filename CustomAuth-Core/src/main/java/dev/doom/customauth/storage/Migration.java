@@ -0,0 +1,30 @@
+package dev.doom.customauth.storage;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * One versioned schema change. Steps must be idempotent (IF NOT EXISTS,
+ * existence checks), since MySQL commits DDL implicitly and a crash between
+ * the step and recording its version runs it again.
+ *
+ * @param backfill Optional data change that runs in batches after startup,
+ *                 or null. It has to select only rows that still need work,
+ *                 so it can be interrupted and resumed.
+ */
+public record Migration(int version, String description, Step step, Backfill backfill) {
+
+    public Migration(int version, String description, Step step) {
+        this(version, description, step, null);
+    }
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection conn, SqlDialect dialect) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface Backfill {
+        BatchedBackfill create(SqlDialect dialect);
+    }
+}
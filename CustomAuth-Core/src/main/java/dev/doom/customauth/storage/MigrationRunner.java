@@ -0,0 +1,116 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.utils.Constants;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import javax.sql.DataSource;
+
+/**
+ * Brings the database schema up to {@link Constants#DATABASE_VERSION}. The
+ * applied version is kept in schema_version, one row per migration. Schema
+ * steps run during startup, backfills afterwards in the background.
+ */
+public class MigrationRunner {
+    private final CustomAuth plugin;
+    private final DataSource dataSource;
+    private final SqlDialect dialect;
+
+    MigrationRunner(CustomAuth plugin, DataSource dataSource, SqlDialect dialect) {
+        this.plugin = plugin;
+        this.dataSource = dataSource;
+        this.dialect = dialect;
+    }
+
+    public void migrate() throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INT PRIMARY KEY,
+                        description %s,
+                        applied_at BIGINT
+                    )
+                    """.formatted(dialect.varchar(200)));
+            }
+
+            int current = getVersion(conn);
+            if (current > Constants.DATABASE_VERSION) {
+                plugin.getLogger().warning(String.format(
+                    "Database schema is at version %d, newer than this plugin knows (%d). Was the plugin downgraded?",
+                    current, Constants.DATABASE_VERSION));
+            }
+
+            for (Migration migration : Migrations.all()) {
+                if (migration.version() <= current) {
+                    continue;
+                }
+                plugin.getLogger().info("Applying database migration " + migration.version() + ": " + migration.description());
+                apply(conn, migration);
+            }
+        }
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        // Transactional DDL on SQLite, MySQL commits each statement on its own
+        conn.setAutoCommit(false);
+        try {
+            migration.step().apply(conn, dialect);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)")) {
+                stmt.setInt(1, migration.version());
+                stmt.setString(2, migration.description());
+                stmt.setLong(3, System.currentTimeMillis());
+                stmt.executeUpdate();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + migration.version() + " failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private int getVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Runs every backfill until it finds nothing left to do. Finished
+     * backfills cost one empty select per startup.
+     */
+    public CompletableFuture<Void> runBackfills() {
+        int batchSize = Math.max(1, plugin.getConfig().getInt("storage.migrations.backfill_batch", 1000));
+        long pause = Math.max(0, plugin.getConfig().getLong("storage.migrations.backfill_pause", 50));
+
+        return CompletableFuture.runAsync(() -> {
+            for (Migration migration : Migrations.all()) {
+                if (migration.backfill() == null) {
+                    continue;
+                }
+                BatchedBackfill backfill = migration.backfill().create(dialect);
+                try {
+                    long start = System.currentTimeMillis();
+                    long rows = backfill.run(dataSource, batchSize, pause);
+                    if (rows > 0) {
+                        plugin.getLogger().info(String.format("Backfill %s updated %d rows in %dms",
+                            backfill.getName(), rows, System.currentTimeMillis() - start));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (SQLException e) {
+                    plugin.getLogger().severe("Backfill " + backfill.getName() + " failed, it resumes on the next start: " + e.getMessage());
+                }
+            }
+        }, plugin.getAsyncExecutor());
+    }
+}
@@ -0,0 +1,173 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.utils.SecurityUtils;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Every schema change in order. Append new migrations at the end and never
+ * edit one that has shipped; bump {@code Constants.DATABASE_VERSION} with it.
+ */
+final class Migrations {
+
+    private Migrations() {
+    }
+
+    static List<Migration> all() {
+        return List.of(
+            new Migration(1, "Initial schema", Migrations::initialSchema),
+            new Migration(2, "Indexes for session cleanup and account lookups", Migrations::lookupIndexes),
+            new Migration(3, "IP history with binary addresses", Migrations::binaryIpHistory, Migrations::moveIpHistory),
+            new Migration(4, "Password reset tokens", Migrations::passwordResets)
+        );
+    }
+
+    // Databases created before versioning already have these tables, IF NOT EXISTS adopts them
+    private static void initialSchema(Connection conn, SqlDialect dialect) throws SQLException {
+        String[] queries = {
+            // Players table
+            """
+            CREATE TABLE IF NOT EXISTS players (
+                username %1$s PRIMARY KEY,
+                password %2$s NOT NULL,
+                email %3$s,
+                last_ip %4$s,
+                last_login BIGINT,
+                registered_date BIGINT,
+                verified %5$s DEFAULT FALSE,
+                is_bedrock %5$s DEFAULT FALSE,
+                xuid %6$s,
+                device_id %7$s,
+                device_os %6$s,
+                verification_token %7$s
+            )
+            """.formatted(dialect.varchar(16), dialect.varchar(256), dialect.varchar(100), dialect.varchar(45),
+                dialect.booleanType(), dialect.varchar(32), dialect.varchar(64)),
+
+            // Sessions table
+            """
+            CREATE TABLE IF NOT EXISTS sessions (
+                username %s,
+                token %s,
+                expires BIGINT,
+                ip %s,
+                PRIMARY KEY (username, token)
+            )
+            """.formatted(dialect.varchar(16), dialect.varchar(64), dialect.varchar(45)),
+
+            // IP history table
+            """
+            CREATE TABLE IF NOT EXISTS ip_history (
+                ip %s,
+                username %s,
+                last_used BIGINT,
+                login_count INT DEFAULT 1,
+                PRIMARY KEY (ip, username)
+            )
+            """.formatted(dialect.varchar(45), dialect.varchar(16))
+        };
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String query : queries) {
+                stmt.executeUpdate(query);
+            }
+        }
+    }
+
+    // sessions(username) is already served by the (username, token) primary key
+    private static void lookupIndexes(Connection conn, SqlDialect dialect) throws SQLException {
+        createIndex(conn, "sessions", "idx_sessions_expires", "expires");
+        createIndex(conn, "ip_history", "idx_ip_history_username", "username");
+        createIndex(conn, "ip_history", "idx_ip_history_last_used", "last_used");
+        createIndex(conn, "players", "idx_players_email", "email");
+        createIndex(conn, "players", "idx_players_xuid", "xuid");
+        createIndex(conn, "players", "idx_players_last_login", "last_login");
+    }
+
+    // Replaces ip_history, whose key is (ip text, username); logins write here from now on
+    private static void binaryIpHistory(Connection conn, SqlDialect dialect) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS ip_addresses (
+                    ip %s NOT NULL,
+                    username %s NOT NULL,
+                    last_used BIGINT,
+                    login_count INT DEFAULT 1,
+                    PRIMARY KEY (ip, username)
+                )
+                """.formatted(dialect.binary(16), dialect.varchar(16)));
+        }
+        // Lookups by IP (alt accounts) use the primary key
+        createIndex(conn, "ip_addresses", "idx_ip_addresses_username", "username");
+        createIndex(conn, "ip_addresses", "idx_ip_addresses_last_used", "last_used");
+    }
+
+    // One pending reset per player, a new request replaces the old token
+    private static void passwordResets(Connection conn, SqlDialect dialect) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS password_resets (
+                    username %s PRIMARY KEY,
+                    token %s NOT NULL,
+                    expires BIGINT NOT NULL
+                )
+                """.formatted(dialect.varchar(16), dialect.varchar(64)));
+        }
+        // Email verification looks accounts up by their token
+        createIndex(conn, "players", "idx_players_verification_token", "verification_token");
+    }
+
+    // Moves the text rows over in batches, merged with whatever was logged since the upgrade
+    private static BatchedBackfill moveIpHistory(SqlDialect dialect) {
+        return new BatchedBackfill("ip_history -> ip_addresses",
+            "SELECT ip, username, last_used, login_count FROM ip_history " + dialect.limit("?"),
+            Database.ipHistoryUpsert(dialect),
+            (row, insert) -> {
+                byte[] ip = SecurityUtils.ipLiteralToBytes(row.getString("ip"));
+                if (ip == null) {
+                    // Not an address, nothing worth keeping
+                    return false;
+                }
+                insert.setBytes(1, ip);
+                insert.setString(2, row.getString("username"));
+                insert.setLong(3, row.getLong("last_used"));
+                insert.setInt(4, row.getInt("login_count"));
+                return true;
+            },
+            "DELETE FROM ip_history WHERE ip = ? AND username = ?",
+            (row, delete) -> {
+                delete.setString(1, row.getString("ip"));
+                delete.setString(2, row.getString("username"));
+                return true;
+            });
+    }
+
+    /**
+     * CREATE INDEX unless it exists. MySQL has no IF NOT EXISTS for indexes,
+     * so this asks the driver's metadata instead.
+     */
+    static void createIndex(Connection conn, String table, String name, String columns) throws SQLException {
+        if (indexExists(conn, table, name)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE INDEX " + name + " ON " + table + " (" + columns + ")");
+        }
+    }
+
+    private static boolean indexExists(Connection conn, String table, String name) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getIndexInfo(conn.getCatalog(), null, table, false, true)) {
+            while (rs.next()) {
+                if (name.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
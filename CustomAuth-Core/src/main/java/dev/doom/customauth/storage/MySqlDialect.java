@@ -0,0 +1,90 @@
+package dev.doom.customauth.storage;
+
+import com.zaxxer.hikari.HikariConfig;
+import dev.doom.customauth.CustomAuth;
+import java.util.List;
+
+public class MySqlDialect implements SqlDialect {
+
+    @Override
+    public String getName() {
+        return "MySQL";
+    }
+
+    @Override
+    public void configure(HikariConfig config, CustomAuth plugin) {
+        configure(config, plugin,
+            plugin.getConfig().getString("storage.mysql.host"),
+            plugin.getConfig().getInt("storage.mysql.port"));
+    }
+
+    // Replicas share the credentials, schema and tuning of the primary
+    @Override
+    public boolean configureReplica(HikariConfig config, CustomAuth plugin, String host, int port) {
+        configure(config, plugin, host, port);
+        config.setMaximumPoolSize(plugin.getConfig().getInt("storage.mysql.replica-pool-size",
+            plugin.getConfig().getInt("storage.mysql.pool-size", 10)));
+        config.setReadOnly(true);
+        return true;
+    }
+
+    private void configure(HikariConfig config, CustomAuth plugin, String host, int port) {
+        config.setJdbcUrl(String.format("jdbc:mysql://%s:%d/%s",
+            host,
+            port,
+            plugin.getConfig().getString("storage.mysql.database")));
+        config.setUsername(plugin.getConfig().getString("storage.mysql.username"));
+        config.setPassword(plugin.getConfig().getString("storage.mysql.password"));
+        config.setMaximumPoolSize(plugin.getConfig().getInt("storage.mysql.pool-size", 10));
+
+        // MySQL optimizations
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.addDataSourceProperty("useLocalSessionState", "true");
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        config.addDataSourceProperty("cacheResultSetMetadata", "true");
+        config.addDataSourceProperty("cacheServerConfiguration", "true");
+        config.addDataSourceProperty("elideSetAutoCommits", "true");
+        config.addDataSourceProperty("maintainTimeStats", "false");
+    }
+
+    @Override
+    public String varchar(int length) {
+        return "VARCHAR(" + length + ")";
+    }
+
+    @Override
+    public String booleanType() {
+        return "BOOLEAN";
+    }
+
+    @Override
+    public String binary(int length) {
+        return "VARBINARY(" + length + ")";
+    }
+
+    @Override
+    public String excluded(String column) {
+        return "VALUES(" + column + ")";
+    }
+
+    @Override
+    public String greatest(String first, String second) {
+        return "GREATEST(" + first + ", " + second + ")";
+    }
+
+    @Override
+    public String upsert(String table, List<String> columns, List<String> keys, List<String> assignments) {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+            + SqlDialect.placeholders(columns.size()) + ") ON DUPLICATE KEY UPDATE "
+            + String.join(", ", assignments);
+    }
+
+    @Override
+    public String insertIgnore(String table, List<String> columns) {
+        return "INSERT IGNORE INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+            + SqlDialect.placeholders(columns.size()) + ")";
+    }
+}
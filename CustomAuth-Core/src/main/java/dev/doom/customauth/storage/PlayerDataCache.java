@@ -0,0 +1,129 @@
+package dev.doom.customauth.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.PlayerData;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Account data cache in two tiers. Online players are pinned in a plain map
+ * that never evicts, so a wave of offline lookups (admin info, API calls)
+ * cannot push out the data every move and command check of an online player
+ * relies on. Offline entries live in a bounded Caffeine cache sized by
+ * {@code performance.cache_size} and expired after {@code cache_expiry}
+ * minutes without access.
+ */
+public class PlayerDataCache {
+    private final CustomAuth plugin;
+    private final Map<String, PlayerData> online = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> pinned = new ConcurrentHashMap<>();
+    private final Cache<String, PlayerData> offline;
+    private final LongAdder onlineHits = new LongAdder();
+
+    public PlayerDataCache(CustomAuth plugin) {
+        this.plugin = plugin;
+        this.offline = Caffeine.newBuilder()
+            .maximumSize(plugin.getConfig().getLong("performance.cache_size", 1000))
+            .expireAfterAccess(plugin.getConfig().getLong("performance.cache_expiry", 30), TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Applies a changed cache_size or cache_expiry without dropping entries.
+     */
+    public void loadConfig() {
+        offline.policy().eviction().ifPresent(eviction ->
+            eviction.setMaximum(plugin.getConfig().getLong("performance.cache_size", 1000)));
+        offline.policy().expireAfterAccess().ifPresent(expiration ->
+            expiration.setExpiresAfter(Duration.ofMinutes(plugin.getConfig().getLong("performance.cache_expiry", 30))));
+    }
+
+    public PlayerData getIfPresent(String username) {
+        String name = username.toLowerCase();
+        PlayerData data = online.get(name);
+        if (data != null) {
+            onlineHits.increment();
+            return data;
+        }
+        return offline.getIfPresent(name);
+    }
+
+    public void put(String username, PlayerData data) {
+        String name = username.toLowerCase();
+        if (pinned.containsKey(name)) {
+            online.put(name, data);
+            offline.invalidate(name);
+        } else {
+            offline.put(name, data);
+        }
+    }
+
+    /**
+     * Pins a player that just joined. Data already cached from an offline
+     * lookup is moved up instead of being loaded again.
+     */
+    public void pin(String username) {
+        String name = username.toLowerCase();
+        pinned.put(name, Boolean.TRUE);
+        PlayerData data = offline.asMap().remove(name);
+        if (data != null) {
+            online.putIfAbsent(name, data);
+        }
+    }
+
+    /**
+     * Unpins a player that left. Their data moves down to the offline tier,
+     * so a quick reconnect does not have to touch storage.
+     */
+    public void unpin(String username) {
+        String name = username.toLowerCase();
+        pinned.remove(name);
+        PlayerData data = online.remove(name);
+        if (data != null) {
+            offline.put(name, data);
+        }
+    }
+
+    public void invalidate(String username) {
+        String name = username.toLowerCase();
+        online.remove(name);
+        offline.invalidate(name);
+    }
+
+    public void cleanUp() {
+        offline.cleanUp();
+    }
+
+    public int getOnlineSize() {
+        return online.size();
+    }
+
+    public long getOfflineSize() {
+        return offline.estimatedSize();
+    }
+
+    public long getOfflineLimit() {
+        return offline.policy().eviction().map(eviction -> eviction.getMaximum()).orElse(0L);
+    }
+
+    public long getEvictions() {
+        return offline.stats().evictionCount();
+    }
+
+    /**
+     * Share of lookups answered from either tier.
+     */
+    public double getHitRate() {
+        CacheStats stats = offline.stats();
+        long hits = onlineHits.sum() + stats.hitCount();
+        long requests = hits + stats.missCount();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+}
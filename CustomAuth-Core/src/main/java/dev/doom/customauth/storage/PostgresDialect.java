@@ -0,0 +1,74 @@
+package dev.doom.customauth.storage;
+
+import com.zaxxer.hikari.HikariConfig;
+import dev.doom.customauth.CustomAuth;
+import java.util.List;
+
+public class PostgresDialect implements SqlDialect {
+
+    @Override
+    public String getName() {
+        return "PostgreSQL";
+    }
+
+    @Override
+    public void configure(HikariConfig config, CustomAuth plugin) {
+        // Shaded, so load the driver class directly instead of finding it by URL
+        config.setDriverClassName("org.postgresql.Driver");
+        config.setJdbcUrl(String.format("jdbc:postgresql://%s:%d/%s",
+            plugin.getConfig().getString("storage.postgresql.host", "localhost"),
+            plugin.getConfig().getInt("storage.postgresql.port", 5432),
+            plugin.getConfig().getString("storage.postgresql.database", "customauth")));
+        config.setUsername(plugin.getConfig().getString("storage.postgresql.username"));
+        config.setPassword(plugin.getConfig().getString("storage.postgresql.password"));
+        config.setMaximumPoolSize(plugin.getConfig().getInt("storage.postgresql.pool-size", 10));
+
+        // PostgreSQL optimizations
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        config.addDataSourceProperty("prepareThreshold", "3");
+        config.addDataSourceProperty("ApplicationName", "CustomAuth");
+    }
+
+    @Override
+    public String varchar(int length) {
+        return "VARCHAR(" + length + ")";
+    }
+
+    @Override
+    public String booleanType() {
+        return "BOOLEAN";
+    }
+
+    @Override
+    public String binary(int length) {
+        return "BYTEA";
+    }
+
+    @Override
+    public String excluded(String column) {
+        return "EXCLUDED." + column;
+    }
+
+    @Override
+    public String greatest(String first, String second) {
+        return "GREATEST(" + first + ", " + second + ")";
+    }
+
+    @Override
+    public String upsert(String table, List<String> columns, List<String> keys, List<String> assignments) {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+            + SqlDialect.placeholders(columns.size()) + ") ON CONFLICT (" + String.join(", ", keys)
+            + ") DO UPDATE SET " + String.join(", ", assignments);
+    }
+
+    @Override
+    public String insertIgnore(String table, List<String> columns) {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+            + SqlDialect.placeholders(columns.size()) + ") ON CONFLICT DO NOTHING";
+    }
+
+    @Override
+    public boolean supportsCopy() {
+        return true;
+    }
+}
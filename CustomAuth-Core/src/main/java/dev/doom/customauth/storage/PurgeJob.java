@@ -0,0 +1,214 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.CustomAuth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deletes expired sessions, IP history past its retention and, if
+ * {@code storage.purge.inactive_days} is set, accounts that have not logged
+ * in for that long. Rows are deleted by primary key in small chunks with a
+ * pause in between, so no statement holds its locks long enough to stall
+ * logins.
+ * <p>
+ * The chunk size adapts to how long each chunk takes: it doubles while
+ * chunks finish well under {@code target_millis} and halves when one takes
+ * longer. Only one purge runs at a time.
+ */
+public class PurgeJob {
+    private final CustomAuth plugin;
+    private final Database database;
+    private final LongAdder totalDeleted = new LongAdder();
+    private CompletableFuture<Void> running;
+    private volatile boolean stopped;
+
+    private volatile int minChunk;
+    private volatile int maxChunk;
+    private volatile long targetMillis;
+    private volatile long pauseMillis;
+    private volatile int inactiveDays;
+    private volatile int ipRetentionDays;
+    private volatile boolean weeklyBuckets;
+
+    // Progress of the current run, read by /authadmin status
+    private volatile String task = "idle";
+    private volatile int chunkSize;
+    private volatile long taskRows;
+    private volatile long taskStarted;
+    private volatile long lastMillis;
+
+    public PurgeJob(CustomAuth plugin, Database database) {
+        this.plugin = plugin;
+        this.database = database;
+        loadConfig();
+        this.chunkSize = Math.max(minChunk, Math.min(maxChunk, plugin.getConfig().getInt("storage.purge.chunk_size", 500)));
+    }
+
+    public void loadConfig() {
+        this.minChunk = Math.max(1, plugin.getConfig().getInt("storage.purge.min_chunk", 50));
+        this.maxChunk = Math.max(minChunk, plugin.getConfig().getInt("storage.purge.max_chunk", 10000));
+        this.targetMillis = Math.max(1, plugin.getConfig().getLong("storage.purge.target_millis", 50));
+        this.pauseMillis = Math.max(0, plugin.getConfig().getLong("storage.purge.pause", 100));
+        this.inactiveDays = Math.max(0, plugin.getConfig().getInt("storage.purge.inactive_days", 0));
+        this.ipRetentionDays = Math.max(0, plugin.getConfig().getInt("storage.ip_history.retention_days", 180));
+        this.weeklyBuckets = plugin.getConfig().getString("storage.ip_history.bucket", "day").equalsIgnoreCase("week");
+    }
+
+    /**
+     * Purges sessions that expired before {@code now} and IP history past
+     * its retention. Returns the running purge instead if there is one.
+     */
+    public synchronized CompletableFuture<Void> purgeExpired(long now) {
+        if (running != null && !running.isDone()) {
+            return running;
+        }
+        running = CompletableFuture.runAsync(() -> {
+            purgeExpiredSessions(now);
+            purgeIpHistory(now);
+        }, plugin.getAsyncExecutor());
+        return running;
+    }
+
+    /**
+     * Purges expired sessions, old IP history and inactive accounts, after
+     * any purge that is already running.
+     */
+    public synchronized CompletableFuture<Void> purgeAll() {
+        CompletableFuture<Void> previous = running != null ? running.exceptionally(error -> null)
+            : CompletableFuture.completedFuture(null);
+        running = previous.thenRunAsync(() -> {
+            long now = System.currentTimeMillis();
+            purgeExpiredSessions(now);
+            purgeIpHistory(now);
+            purgeInactiveAccounts();
+        }, plugin.getAsyncExecutor());
+        return running;
+    }
+
+    private void purgeExpiredSessions(long now) {
+        run("expired sessions", limit -> database.purgeExpiredSessions(now, limit).join());
+    }
+
+    private void purgeIpHistory(long now) {
+        if (ipRetentionDays <= 0) {
+            return;
+        }
+        long cutoff = ipRetentionCutoff(now);
+        run("old IP history", limit -> database.purgeIpHistory(cutoff, limit).join());
+    }
+
+    /**
+     * The start of the day (or week) bucket that lies fully past the
+     * retention. Entries are dropped a whole bucket at a time, so the purge
+     * finds work once per bucket rather than a trickle on every run.
+     */
+    private long ipRetentionCutoff(long now) {
+        long day = TimeUnit.MILLISECONDS.toDays(now) - ipRetentionDays;
+        if (weeklyBuckets) {
+            // Epoch day 0 was a Thursday, weeks start on Monday
+            day = Math.floorDiv(day + 3, 7) * 7 - 3;
+        }
+        return TimeUnit.DAYS.toMillis(day);
+    }
+
+    private void purgeInactiveAccounts() {
+        if (inactiveDays <= 0) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(inactiveDays);
+        run("inactive accounts", limit -> {
+            List<String> removed = database.purgeInactiveAccounts(cutoff, limit).join();
+            for (String username : removed) {
+                plugin.getPlayerCache().invalidate(username);
+                plugin.getAccountLookupService().recordRemoved(username);
+            }
+            return removed.size();
+        });
+    }
+
+    private void run(String name, Chunk chunk) {
+        task = name;
+        taskRows = 0;
+        taskStarted = System.currentTimeMillis();
+        try {
+            while (!stopped) {
+                int limit = chunkSize;
+                long start = System.nanoTime();
+                int deleted = chunk.delete(limit);
+                lastMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                taskRows += deleted;
+                totalDeleted.add(deleted);
+                adapt(lastMillis);
+                if (deleted < limit) {
+                    break;
+                }
+                Thread.sleep(pauseMillis);
+            }
+
+            if (taskRows > 0) {
+                long elapsed = Math.max(1, System.currentTimeMillis() - taskStarted);
+                plugin.getLogger().info(String.format("Purged %d %s in %.1fs (%d rows/s)",
+                    taskRows, name, elapsed / 1000.0, taskRows * 1000 / elapsed));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            plugin.getLogger().warning("Purge of " + name + " stopped after " + taskRows + " rows: " + e.getMessage());
+        } finally {
+            task = "idle";
+        }
+    }
+
+    // Aim for chunks that finish within the target, with headroom either way before changing size
+    private void adapt(long millis) {
+        if (millis > targetMillis) {
+            chunkSize = Math.max(minChunk, chunkSize / 2);
+        } else if (millis < targetMillis / 2) {
+            chunkSize = Math.min(maxChunk, chunkSize * 2);
+        }
+    }
+
+    /**
+     * Stops after the current chunk, called before the database closes.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public boolean isRunning() {
+        return !task.equals("idle");
+    }
+
+    public String getTask() {
+        return task;
+    }
+
+    public long getTaskRows() {
+        return taskRows;
+    }
+
+    public long getRowsPerSecond() {
+        long elapsed = System.currentTimeMillis() - taskStarted;
+        return !isRunning() || elapsed <= 0 ? 0 : taskRows * 1000 / elapsed;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public long getLastChunkMillis() {
+        return lastMillis;
+    }
+
+    public long getTotalDeleted() {
+        return totalDeleted.sum();
+    }
+
+    @FunctionalInterface
+    private interface Chunk {
+        int delete(int limit) throws Exception;
+    }
+}
@@ -0,0 +1,199 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.CustomAuth;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over every registered lowercase username. A negative answer
+ * is definite, so most "not registered" checks on join and /register never
+ * touch storage. Positives (including the configured false positive rate)
+ * fall through to a normal lookup.
+ * <p>
+ * Bloom filters cannot forget, so unregistered names stay in the filter until
+ * the next rebuild. Rebuilds stream the store page by page into a fresh
+ * filter while the old one keeps answering, then swap.
+ */
+public class RegisteredNameFilter {
+    private final CustomAuth plugin;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong removals = new AtomicLong();
+    private volatile Generation current;
+    private volatile Generation building;
+
+    public RegisteredNameFilter(CustomAuth plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * @return false only if the name is certainly not registered
+     */
+    public boolean mightContain(String username) {
+        Generation generation = current;
+        // Not loaded yet, every name has to go to storage
+        return generation == null || generation.mightContain(username.toLowerCase());
+    }
+
+    public void add(String username) {
+        String name = username.toLowerCase();
+        // Read building before current, so a swap in between can never skip the new filter
+        Generation next = building;
+        Generation generation = current;
+        if (next != null) {
+            next.add(name);
+            next.recent.add(name);
+        }
+        if (generation != null && generation != next) {
+            generation.add(name);
+            generation.recent.add(name);
+            if (generation.count.get() > generation.capacity) {
+                rebuild();
+            }
+        }
+    }
+
+    /**
+     * Counts a deleted account. Once a tenth of the filter is stale it is
+     * rebuilt so the false positive rate does not creep up.
+     */
+    public void recordRemoval() {
+        Generation generation = current;
+        if (generation != null && removals.incrementAndGet() > generation.count.get() / 10) {
+            rebuild();
+        }
+    }
+
+    public CompletableFuture<Void> rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return CompletableFuture.runAsync(() -> {
+            long start = System.currentTimeMillis();
+            Generation previous = current;
+            long expected = Math.max(plugin.getConfig().getLong("performance.name_filter.expected_accounts", 100000),
+                previous != null ? previous.count.get() * 2 : 0);
+            double fpp = plugin.getConfig().getDouble("performance.name_filter.false_positive_rate", 0.01);
+
+            Generation next = new Generation(expected, fpp);
+            building = next;
+            removals.set(0);
+
+            plugin.getStorage().forEachUsername(next::add).join();
+
+            // Registrations that may not have reached storage when it was streamed
+            if (previous != null) {
+                previous.recent.forEach(next::add);
+            }
+
+            current = next;
+            building = null;
+            plugin.getLogger().info(String.format("Registered name filter built: %d names, %d KB in %dms",
+                next.count.get(), next.getMemoryBytes() / 1024, System.currentTimeMillis() - start));
+        }, plugin.getAsyncExecutor()).whenComplete((ignored, error) -> {
+            if (error != null) {
+                building = null;
+                plugin.getLogger().severe("Failed to build registered name filter: " + error.getMessage());
+            }
+            rebuilding.set(false);
+        });
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    public long getNameCount() {
+        Generation generation = current;
+        return generation != null ? generation.count.get() : 0;
+    }
+
+    public long getMemoryBytes() {
+        Generation generation = current;
+        return generation != null ? generation.getMemoryBytes() : 0;
+    }
+
+    /**
+     * Expected false positive rate at the current fill level.
+     */
+    public double getFalsePositiveRate() {
+        Generation generation = current;
+        if (generation == null) {
+            return 1.0;
+        }
+        double fill = -(double) generation.hashes * generation.count.get() / generation.bitCount;
+        return Math.pow(1 - Math.exp(fill), generation.hashes);
+    }
+
+    private static final class Generation {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashes;
+        private final long capacity;
+        private final AtomicLong count = new AtomicLong();
+        private final Set<String> recent = ConcurrentHashMap.newKeySet();
+
+        private Generation(long expected, double fpp) {
+            this.capacity = expected;
+            long optimalBits = (long) Math.ceil(-expected * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, (optimalBits + 63) / 64 * 64);
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+            this.bits = new AtomicLongArray((int) (bitCount / 64));
+        }
+
+        private void add(String name) {
+            long h1 = hash(name);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            boolean changed = false;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long previous = bits.getAndAccumulate(index, mask, (value, m) -> value | m);
+                changed |= (previous & mask) == 0;
+            }
+            if (changed) {
+                count.incrementAndGet();
+            }
+        }
+
+        private boolean mightContain(String name) {
+            long h1 = hash(name);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long getMemoryBytes() {
+            return bitCount / 8;
+        }
+
+        // FNV-1a over the chars, finished with a murmur3 mix for better bit spread
+        private static long hash(String name) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < name.length(); i++) {
+                hash ^= name.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb9fe1a85ec53L;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+}
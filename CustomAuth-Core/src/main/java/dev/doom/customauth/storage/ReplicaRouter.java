@@ -0,0 +1,291 @@
+package dev.doom.customauth.storage;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import dev.doom.customauth.CustomAuth;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends reads to the MySQL replicas listed under {@code storage.mysql.replicas}
+ * and everything else to the primary.
+ * <p>
+ * A username that was just written is pinned to the primary for
+ * {@code replica-pin} seconds, so a player never reads back an older copy of
+ * their own account from a replica that has not caught up yet. A replica that
+ * refuses connections is taken out of rotation until the health check reaches
+ * it again; reads in the meantime go to the primary. Replicas start out of
+ * rotation until their first check, which runs async, so one that is down
+ * never holds up startup.
+ */
+public class ReplicaRouter {
+    private final CustomAuth plugin;
+    private final Pool primary;
+    private final List<Pool> replicas;
+    private final Map<String, Long> pins = new ConcurrentHashMap<>();
+    private final long pinMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder pinnedReads = new LongAdder();
+    private final LongAdder failovers = new LongAdder();
+
+    private ReplicaRouter(CustomAuth plugin, HikariDataSource primary, List<Pool> replicas) {
+        this.plugin = plugin;
+        this.primary = new Pool("primary", primary, true);
+        this.replicas = replicas;
+        this.pinMillis = TimeUnit.SECONDS.toMillis(Math.max(0, plugin.getConfig().getLong("storage.mysql.replica-pin", 5)));
+
+        long interval = Math.max(1, plugin.getConfig().getLong("storage.mysql.replica-health-interval", 10)) * 20L;
+        plugin.scheduleTask(this::checkHealth, 1L, interval);
+    }
+
+    /**
+     * Opens a pool per configured replica.
+     *
+     * @return null if no replicas are configured or the dialect has none
+     */
+    static ReplicaRouter create(CustomAuth plugin, SqlDialect dialect, HikariDataSource primary) {
+        List<String> addresses = plugin.getConfig().getStringList("storage.mysql.replicas");
+        if (addresses.isEmpty()) {
+            return null;
+        }
+
+        List<Pool> replicas = new ArrayList<>();
+        for (String address : addresses) {
+            String host = address;
+            int port = plugin.getConfig().getInt("storage.mysql.port", 3306);
+            int colon = address.lastIndexOf(':');
+            if (colon > 0) {
+                host = address.substring(0, colon);
+                try {
+                    port = Integer.parseInt(address.substring(colon + 1));
+                } catch (NumberFormatException e) {
+                    plugin.getLogger().warning("Ignoring replica with invalid port: " + address);
+                    continue;
+                }
+            }
+
+            HikariConfig config = new HikariConfig();
+            if (!dialect.configureReplica(config, plugin, host, port)) {
+                plugin.getLogger().warning(dialect.getName() + " does not support read replicas, ignoring storage.mysql.replicas");
+                return null;
+            }
+            config.setPoolName("CustomAuth-Replica-" + (replicas.size() + 1));
+            // A replica that is down at startup must not keep the plugin from enabling
+            config.setInitializationFailTimeout(-1);
+            // Fail over quickly instead of waiting Hikari's default 30s for a dead replica
+            config.setConnectionTimeout(TimeUnit.SECONDS.toMillis(
+                Math.max(1, plugin.getConfig().getLong("storage.mysql.replica-connect-timeout", 3))));
+            replicas.add(new Pool(address, new HikariDataSource(config), false));
+        }
+        return replicas.isEmpty() ? null : new ReplicaRouter(plugin, primary, replicas);
+    }
+
+    /**
+     * Runs a query on a healthy replica, or on the primary if the username is
+     * pinned or no replica is available. Connection failures on a replica are
+     * retried once on the primary.
+     */
+    <T> T read(String username, Database.SqlWork<T> work) throws SQLException {
+        if (username != null && isPinned(username.toLowerCase())) {
+            pinnedReads.increment();
+            return primary.run(work);
+        }
+
+        Pool replica = pick();
+        if (replica != null) {
+            try {
+                T result = replica.run(work);
+                replicaReads.increment();
+                return result;
+            } catch (SQLException e) {
+                if (!isConnectionError(e)) {
+                    throw e;
+                }
+                markDown(replica, e);
+                failovers.increment();
+            }
+        }
+        return primary.run(work);
+    }
+
+    /**
+     * Runs a mutation on the primary and pins the username afterwards.
+     */
+    <T> T write(String username, Database.SqlWork<T> work) throws SQLException {
+        T result = primary.run(work);
+        if (username != null) {
+            pin(username);
+        }
+        return result;
+    }
+
+    void pin(String username) {
+        if (pinMillis > 0) {
+            pins.put(username.toLowerCase(), System.currentTimeMillis() + pinMillis);
+        }
+    }
+
+    private boolean isPinned(String username) {
+        Long until = pins.get(username);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            pins.remove(username, until);
+            return false;
+        }
+        return true;
+    }
+
+    // Round robin over the replicas that passed their last health check
+    private Pool pick() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Pool replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isConnectionError(SQLException e) {
+        return e instanceof SQLTransientConnectionException
+            || e instanceof SQLNonTransientConnectionException
+            || (e.getSQLState() != null && e.getSQLState().startsWith("08"));
+    }
+
+    private void markDown(Pool replica, Exception error) {
+        if (replica.healthy || !replica.checked) {
+            replica.healthy = false;
+            plugin.getLogger().warning("Replica " + replica.name + " is unreachable, reading from the primary: " + error.getMessage());
+        }
+    }
+
+    private void checkHealth() {
+        for (Pool replica : replicas) {
+            try (Connection conn = replica.dataSource.getConnection()) {
+                if (!conn.isValid(2)) {
+                    throw new SQLException("connection is not valid");
+                }
+                if (!replica.healthy) {
+                    replica.healthy = true;
+                    if (replica.checked) {
+                        plugin.getLogger().info("Replica " + replica.name + " is reachable again");
+                    }
+                }
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+            replica.checked = true;
+        }
+
+        long now = System.currentTimeMillis();
+        pins.values().removeIf(until -> until < now);
+    }
+
+    /**
+     * Closes the replica pools, the primary belongs to {@link Database}.
+     */
+    void close() {
+        for (Pool replica : replicas) {
+            if (!replica.dataSource.isClosed()) {
+                replica.dataSource.close();
+            }
+        }
+    }
+
+    /**
+     * The primary first, then the replicas in configured order.
+     */
+    public List<Pool> getPools() {
+        List<Pool> pools = new ArrayList<>(replicas.size() + 1);
+        pools.add(primary);
+        pools.addAll(replicas);
+        return Collections.unmodifiableList(pools);
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    public long getPinnedReads() {
+        return pinnedReads.sum();
+    }
+
+    public long getFailovers() {
+        return failovers.sum();
+    }
+
+    public static final class Pool {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final LongAdder queries = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile boolean healthy;
+        private volatile boolean checked;
+
+        private Pool(String name, HikariDataSource dataSource, boolean healthy) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.healthy = healthy;
+        }
+
+        private <T> T run(Database.SqlWork<T> work) throws SQLException {
+            long start = System.nanoTime();
+            boolean success = false;
+            try (Connection conn = dataSource.getConnection()) {
+                T result = work.run(conn);
+                success = true;
+                return result;
+            } finally {
+                long nanos = System.nanoTime() - start;
+                queries.increment();
+                if (!success) {
+                    failures.increment();
+                }
+                totalNanos.add(nanos);
+                maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public long getQueries() {
+            return queries.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public double getAverageMillis() {
+            long count = queries.sum();
+            return count == 0 ? 0 : totalNanos.sum() / (count * 1_000_000.0);
+        }
+
+        public long getMaxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+    }
+}
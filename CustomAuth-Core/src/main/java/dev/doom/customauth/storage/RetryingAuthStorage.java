@@ -0,0 +1,85 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.AccountLookup;
+import dev.doom.customauth.models.LoginSnapshot;
+import dev.doom.customauth.models.SessionData;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Retries reads that failed for a transient reason (lost connection,
+ * deadlock, pool timeout) with exponential backoff. Writes are not retried:
+ * after an ambiguous failure the write may have been applied, and the
+ * backends report write failures as false rather than an error anyway.
+ */
+public class RetryingAuthStorage extends ForwardingAuthStorage {
+    private final CustomAuth plugin;
+    private final int attempts;
+    private final long backoffMillis;
+    private final LongAdder retries = new LongAdder();
+
+    public RetryingAuthStorage(CustomAuth plugin, AuthStorage delegate) {
+        super(delegate);
+        this.plugin = plugin;
+        this.attempts = Math.max(1, plugin.getConfig().getInt("storage.retry.attempts", 3));
+        this.backoffMillis = Math.max(1, plugin.getConfig().getLong("storage.retry.backoff", 50));
+    }
+
+    @Override
+    public CompletableFuture<AccountLookup> lookupAccount(String username) {
+        // Lookups report storage errors in the result instead of failing
+        return retry(() -> delegate.lookupAccount(username),
+            lookup -> lookup.isError() && isTransient(lookup.error()), 1);
+    }
+
+    @Override
+    public CompletableFuture<LoginSnapshot> loadLoginSnapshot(String username, UUID uuid) {
+        return retry(() -> delegate.loadLoginSnapshot(username, uuid), result -> false, 1);
+    }
+
+    @Override
+    public CompletableFuture<SessionData> loadSession(String username) {
+        return retry(() -> delegate.loadSession(username), result -> false, 1);
+    }
+
+    private <T> CompletableFuture<T> retry(Supplier<CompletableFuture<T>> call, Predicate<T> failedResult, int attempt) {
+        return call.get().handle((result, error) -> {
+            boolean retryable = error != null ? isTransient(error) : failedResult.test(result);
+            if (!retryable || attempt >= attempts) {
+                return error != null ? CompletableFuture.<T>failedFuture(error) : CompletableFuture.completedFuture(result);
+            }
+            retries.increment();
+            Executor delayed = CompletableFuture.delayedExecutor(
+                backoffMillis << (attempt - 1), TimeUnit.MILLISECONDS, plugin.getAsyncExecutor());
+            return CompletableFuture.supplyAsync(() -> null, delayed)
+                .thenCompose(ignored -> retry(call, failedResult, attempt + 1));
+        }).thenCompose(future -> future);
+    }
+
+    private static boolean isTransient(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+            return true;
+        }
+        // 08 = connection exception, 40 = transaction rollback (deadlock, serialization failure)
+        return cause instanceof SQLException sql && sql.getSQLState() != null
+            && (sql.getSQLState().startsWith("08") || sql.getSQLState().startsWith("40"));
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+}
@@ -0,0 +1,155 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.models.AccountLookup;
+import dev.doom.customauth.models.LoginSnapshot;
+import dev.doom.customauth.models.PlayerData;
+import dev.doom.customauth.models.SessionData;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * {@link AuthStorage} on top of {@link Database}, for every SQL dialect.
+ */
+public class SqlAuthStorage implements AuthStorage {
+    private static final int USERNAME_PAGE_SIZE = 10000;
+
+    private final CustomAuth plugin;
+    private final Database database;
+
+    public SqlAuthStorage(CustomAuth plugin, Database database) {
+        this.plugin = plugin;
+        this.database = database;
+    }
+
+    @Override
+    public String getName() {
+        return database.getDialect().getName();
+    }
+
+    @Override
+    public CompletableFuture<AccountLookup> lookupAccount(String username) {
+        return database.lookupAccount(username);
+    }
+
+    @Override
+    public CompletableFuture<LoginSnapshot> loadLoginSnapshot(String username, UUID uuid) {
+        return database.loadLoginSnapshot(username, uuid);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> registerAccount(PlayerData data) {
+        if (data.isBedrockPlayer()) {
+            return database.registerBedrockPlayer(data.getUsername(), data.getHashedPassword(),
+                data.getXuid(), data.getDeviceId(), data.getDeviceOs());
+        }
+        return database.registerPlayer(data.getUsername(), data.getHashedPassword(), data.getEmail());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updatePassword(String username, String hashedPassword) {
+        return database.updatePassword(username.toLowerCase(), hashedPassword);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateBedrockDevice(String username, String deviceId, String deviceOs) {
+        return database.updateBedrockDeviceInfo(username, deviceId, deviceOs);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> resetVerification(String username) {
+        return database.reset2FA(username.toLowerCase());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAccount(String username) {
+        return database.deletePlayer(username);
+    }
+
+    @Override
+    public CompletableFuture<Void> forEachUsername(Consumer<String> action) {
+        return CompletableFuture.runAsync(() -> {
+            String after = "";
+            List<String> page;
+            do {
+                page = database.getUsernamePage(after, USERNAME_PAGE_SIZE).join();
+                page.forEach(action);
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1);
+                }
+            } while (page.size() == USERNAME_PAGE_SIZE);
+        }, plugin.getAsyncExecutor());
+    }
+
+    @Override
+    public void recordLogin(String username, InetAddress address, long timestamp) {
+        database.recordLogin(username, address, timestamp);
+    }
+
+    @Override
+    public void recordLastSeen(String username, String ip, long timestamp) {
+        database.recordLastSeen(username, ip, timestamp);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveSession(SessionData session) {
+        return done(database.saveSession(session.username(), session.token(), session.expiry(), session.ip()));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateSessionExpiry(SessionData session) {
+        return done(database.updateSessionExpiry(session.username(), session.token(), session.expiry()));
+    }
+
+    @Override
+    public CompletableFuture<SessionData> loadSession(String username) {
+        return database.getSession(username.toLowerCase());
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteSession(String username) {
+        return done(database.deleteSession(username.toLowerCase()));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAllSessions(String username) {
+        return done(database.deleteAllSessions(username.toLowerCase()));
+    }
+
+    @Override
+    public CompletableFuture<Void> cleanupExpiredSessions(long now) {
+        return database.getPurgeJob().purgeExpired(now);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveVerificationToken(String username, String token) {
+        return done(database.saveVerificationToken(username, token));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> verifyEmailToken(String token) {
+        return database.verifyEmailToken(token);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveResetToken(String username, String token, long expiry) {
+        return done(database.saveResetToken(username, token, expiry));
+    }
+
+    @Override
+    public CompletableFuture<Void> cleanup() {
+        return database.getPurgeJob().purgeAll();
+    }
+
+    @Override
+    public void close() {
+        database.close();
+    }
+
+    private static CompletableFuture<Void> done(CompletableFuture<?> future) {
+        return future.thenApply(ignored -> null);
+    }
+}
@@ -0,0 +1,102 @@
+package dev.doom.customauth.storage;
+
+import com.zaxxer.hikari.HikariConfig;
+import dev.doom.customauth.CustomAuth;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The parts of SQL that differ between the supported databases: connection
+ * setup, column types, upserts and row limits. Everything else in
+ * {@link Database} is plain SQL that runs on all of them.
+ */
+public interface SqlDialect {
+
+    String getName();
+
+    /**
+     * Points the pool at the database and applies driver tuning.
+     */
+    void configure(HikariConfig config, CustomAuth plugin);
+
+    /**
+     * Sets up a separate pool for read-only queries.
+     *
+     * @return false if reads share the main pool
+     */
+    default boolean configureReaders(HikariConfig config, CustomAuth plugin) {
+        return false;
+    }
+
+    /**
+     * Points a pool at a read replica of the main database.
+     *
+     * @return false if this database does not support replicas
+     */
+    default boolean configureReplica(HikariConfig config, CustomAuth plugin, String host, int port) {
+        return false;
+    }
+
+    /**
+     * Whether all writes go through one {@link SqliteWriter} thread instead of the pool.
+     */
+    default boolean usesSingleWriter() {
+        return false;
+    }
+
+    String varchar(int length);
+
+    String booleanType();
+
+    /**
+     * Variable-length byte string of at most {@code length} bytes.
+     */
+    String binary(int length);
+
+    /**
+     * The value the insert tried to write, for use in upsert assignments.
+     */
+    String excluded(String column);
+
+    String greatest(String first, String second);
+
+    /**
+     * INSERT that updates the existing row when the key already exists.
+     * Assignments refer to the existing row by table-qualified column and to
+     * the new row through {@link #excluded(String)}.
+     */
+    String upsert(String table, List<String> columns, List<String> keys, List<String> assignments);
+
+    /**
+     * INSERT that silently skips rows whose key already exists.
+     */
+    String insertIgnore(String table, List<String> columns);
+
+    /**
+     * Whether bulk imports and exports can stream through COPY instead of
+     * batched statements, see {@link AccountTransfer}.
+     */
+    default boolean supportsCopy() {
+        return false;
+    }
+
+    default String limit(String count) {
+        return "LIMIT " + count;
+    }
+
+    /**
+     * @return The dialect for a storage.type value, null for file storage
+     */
+    static SqlDialect forType(String type) {
+        return switch (type.toLowerCase()) {
+            case "mysql", "mariadb" -> new MySqlDialect();
+            case "sqlite" -> new SqliteDialect();
+            case "postgresql", "postgres" -> new PostgresDialect();
+            default -> null;
+        };
+    }
+
+    static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
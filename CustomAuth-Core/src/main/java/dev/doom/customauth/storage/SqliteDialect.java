@@ -0,0 +1,102 @@
+package dev.doom.customauth.storage;
+
+import com.zaxxer.hikari.HikariConfig;
+import dev.doom.customauth.CustomAuth;
+import java.io.File;
+import java.util.List;
+
+/**
+ * Embedded single-file database. WAL lets reads run while a write is in
+ * progress, and with synchronous=NORMAL a commit only syncs at checkpoints,
+ * which can lose the last transactions on power loss but never corrupts the
+ * file.
+ * <p>
+ * Reads use a pool of read-only connections. Writes go through a single
+ * {@link SqliteWriter} thread on the one read-write connection.
+ */
+public class SqliteDialect implements SqlDialect {
+
+    @Override
+    public String getName() {
+        return "SQLite";
+    }
+
+    @Override
+    public void configure(HikariConfig config, CustomAuth plugin) {
+        config.setJdbcUrl(jdbcUrl(plugin));
+        config.setMaximumPoolSize(1); // SQLite allows a single writer
+        config.addDataSourceProperty("journal_mode", "WAL");
+        applyPragmas(config, plugin);
+    }
+
+    @Override
+    public boolean configureReaders(HikariConfig config, CustomAuth plugin) {
+        config.setJdbcUrl(jdbcUrl(plugin));
+        config.setMaximumPoolSize(Math.max(1, plugin.getConfig().getInt("storage.sqlite.readers", 4)));
+        // SQLITE_OPEN_READONLY, the driver refuses to switch an open connection to read-only
+        config.addDataSourceProperty("open_mode", "1");
+        applyPragmas(config, plugin);
+        return true;
+    }
+
+    @Override
+    public boolean usesSingleWriter() {
+        return true;
+    }
+
+    private String jdbcUrl(CustomAuth plugin) {
+        File file = new File(plugin.getDataFolder(), plugin.getConfig().getString("storage.sqlite.file", "database.db"));
+        return "jdbc:sqlite:" + file.getAbsolutePath();
+    }
+
+    // Applied by the driver to every new connection
+    private void applyPragmas(HikariConfig config, CustomAuth plugin) {
+        config.addDataSourceProperty("synchronous",
+            plugin.getConfig().getString("storage.sqlite.synchronous", "NORMAL"));
+        config.addDataSourceProperty("mmap_size",
+            String.valueOf(plugin.getConfig().getLong("storage.sqlite.mmap_size", 268435456L)));
+        config.addDataSourceProperty("cache_size",
+            String.valueOf(plugin.getConfig().getInt("storage.sqlite.cache_size", -16000)));
+        config.addDataSourceProperty("busy_timeout",
+            String.valueOf(plugin.getConfig().getInt("storage.sqlite.busy_timeout", 5000)));
+    }
+
+    @Override
+    public String varchar(int length) {
+        // Length is not enforced, TEXT states that honestly
+        return "TEXT";
+    }
+
+    @Override
+    public String booleanType() {
+        return "INTEGER";
+    }
+
+    @Override
+    public String binary(int length) {
+        return "BLOB";
+    }
+
+    @Override
+    public String excluded(String column) {
+        return "excluded." + column;
+    }
+
+    @Override
+    public String greatest(String first, String second) {
+        return "MAX(" + first + ", " + second + ")";
+    }
+
+    @Override
+    public String upsert(String table, List<String> columns, List<String> keys, List<String> assignments) {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+            + SqlDialect.placeholders(columns.size()) + ") ON CONFLICT (" + String.join(", ", keys)
+            + ") DO UPDATE SET " + String.join(", ", assignments);
+    }
+
+    @Override
+    public String insertIgnore(String table, List<String> columns) {
+        return "INSERT OR IGNORE INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+            + SqlDialect.placeholders(columns.size()) + ")";
+    }
+}
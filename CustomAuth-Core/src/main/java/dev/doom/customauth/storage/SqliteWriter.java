@@ -0,0 +1,185 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.CustomAuth;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+
+/**
+ * The one thread that writes to the SQLite file. SQLite takes a database-wide
+ * lock per write transaction, so instead of pool threads queueing on that lock
+ * every mutation is queued here and whatever piled up while the previous
+ * commit ran goes into the next transaction. One fsync then covers many
+ * writes.
+ * <p>
+ * Each write runs in its own savepoint, so a failing statement only fails its
+ * own future and the rest of the group still commits.
+ */
+public class SqliteWriter {
+    private final CustomAuth plugin;
+    private final DataSource dataSource;
+    private final BlockingQueue<WriteTask<?>> queue = new LinkedBlockingQueue<>();
+    private final int maxGroup;
+    private final Thread thread;
+    // Own executor, so callers blocking on writes can never starve their completions
+    private final ExecutorService callbacks;
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private volatile boolean running = true;
+
+    public SqliteWriter(CustomAuth plugin, DataSource dataSource) {
+        this.plugin = plugin;
+        this.dataSource = dataSource;
+        this.maxGroup = Math.max(1, plugin.getConfig().getInt("storage.sqlite.max_group_size", 256));
+        this.callbacks = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("CustomAuth-SQLite-Callback-", 0).factory());
+        this.thread = Thread.ofPlatform().name("CustomAuth-SQLite-Writer").daemon().start(this::run);
+    }
+
+    <T> CompletableFuture<T> submit(Database.SqlWork<T> work) {
+        WriteTask<T> task = new WriteTask<>(work);
+        if (!running) {
+            task.future.completeExceptionally(new IllegalStateException("Database is closed"));
+            return task.future;
+        }
+        queue.add(task);
+        return task.future;
+    }
+
+    private void run() {
+        List<WriteTask<?>> group = new ArrayList<>(maxGroup);
+        while (running || !queue.isEmpty()) {
+            try {
+                WriteTask<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, maxGroup - 1);
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<WriteTask<?>> group) {
+        List<Object> results = new ArrayList<>(group.size());
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (WriteTask<?> task : group) {
+                    Savepoint savepoint = conn.setSavepoint();
+                    try {
+                        results.add(task.work.run(conn));
+                        conn.releaseSavepoint(savepoint);
+                    } catch (Exception e) {
+                        conn.rollback(savepoint);
+                        results.add(new Failure(e));
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Failed to commit " + group.size() + " SQLite writes: " + e.getMessage());
+            group.forEach(task -> deliver(task, new Failure(e)));
+            return;
+        }
+
+        // Only report success once the group is durable
+        writes.add(group.size());
+        commits.increment();
+        for (int i = 0; i < group.size(); i++) {
+            deliver(group.get(i), results.get(i));
+        }
+    }
+
+    /**
+     * Completes the future off the writer thread, so dependent callbacks
+     * cannot stall it. Not on the async executor: with a fixed platform pool
+     * its threads may all be blocked in join() on these very futures, and the
+     * completions would queue behind them forever.
+     */
+    private void deliver(WriteTask<?> task, Object result) {
+        try {
+            callbacks.execute(() -> task.complete(result));
+        } catch (RejectedExecutionException e) {
+            // Shutting down, nothing is waiting on callbacks any more
+            task.complete(result);
+        }
+    }
+
+    /**
+     * Stops accepting writes and waits for the queue to drain.
+     */
+    public void close() {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            plugin.getLogger().warning("SQLite writer did not finish, " + queue.size() + " writes were dropped");
+        }
+        WriteTask<?> task;
+        while ((task = queue.poll()) != null) {
+            task.complete(new Failure(new IllegalStateException("Database is closed")));
+        }
+        // Completions already handed over still run
+        callbacks.shutdown();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    public long getCommits() {
+        return commits.sum();
+    }
+
+    private record Failure(Exception error) {
+    }
+
+    private static final class WriteTask<T> {
+        private final Database.SqlWork<T> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private WriteTask(Database.SqlWork<T> work) {
+            this.work = work;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete(Object result) {
+            if (result instanceof Failure failure) {
+                future.completeExceptionally(new CompletionException(failure.error()));
+            } else {
+                future.complete((T) result);
+            }
+        }
+    }
+}
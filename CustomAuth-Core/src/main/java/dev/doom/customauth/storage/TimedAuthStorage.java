@@ -0,0 +1,128 @@
+package dev.doom.customauth.storage;
+
+import dev.doom.customauth.models.AccountLookup;
+import dev.doom.customauth.models.LoginSnapshot;
+import dev.doom.customauth.models.PlayerData;
+import dev.doom.customauth.models.SessionData;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Records call count, failures and latency per storage operation, measured
+ * from the call until its future completes. Wrapped around a bare backend it
+ * gives comparable numbers for different backends under the same load.
+ */
+public class TimedAuthStorage extends ForwardingAuthStorage {
+    private final Map<String, OperationStats> stats = new ConcurrentHashMap<>();
+
+    public TimedAuthStorage(AuthStorage delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public CompletableFuture<AccountLookup> lookupAccount(String username) {
+        return time("lookupAccount", () -> delegate.lookupAccount(username));
+    }
+
+    @Override
+    public CompletableFuture<LoginSnapshot> loadLoginSnapshot(String username, UUID uuid) {
+        return time("loadLoginSnapshot", () -> delegate.loadLoginSnapshot(username, uuid));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> registerAccount(PlayerData data) {
+        return time("registerAccount", () -> delegate.registerAccount(data));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updatePassword(String username, String hashedPassword) {
+        return time("updatePassword", () -> delegate.updatePassword(username, hashedPassword));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAccount(String username) {
+        return time("deleteAccount", () -> delegate.deleteAccount(username));
+    }
+
+    @Override
+    public CompletableFuture<Void> saveSession(SessionData session) {
+        return time("saveSession", () -> delegate.saveSession(session));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateSessionExpiry(SessionData session) {
+        return time("updateSessionExpiry", () -> delegate.updateSessionExpiry(session));
+    }
+
+    @Override
+    public CompletableFuture<SessionData> loadSession(String username) {
+        return time("loadSession", () -> delegate.loadSession(username));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteSession(String username) {
+        return time("deleteSession", () -> delegate.deleteSession(username));
+    }
+
+    @Override
+    public CompletableFuture<Void> cleanupExpiredSessions(long now) {
+        return time("cleanupExpiredSessions", () -> delegate.cleanupExpiredSessions(now));
+    }
+
+    private <T> CompletableFuture<T> time(String operation, Supplier<CompletableFuture<T>> call) {
+        OperationStats operationStats = stats.computeIfAbsent(operation, key -> new OperationStats());
+        long start = System.nanoTime();
+        return call.get().whenComplete((result, error) -> operationStats.record(System.nanoTime() - start,
+            error == null && !(result instanceof AccountLookup lookup && lookup.isError())));
+    }
+
+    public Map<String, OperationStats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    public OperationStats getStats(String operation) {
+        return stats.getOrDefault(operation, OperationStats.EMPTY);
+    }
+
+    public static final class OperationStats {
+        private static final OperationStats EMPTY = new OperationStats();
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long nanos, boolean success) {
+            calls.increment();
+            if (!success) {
+                failures.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public double getAverageMillis() {
+            long count = calls.sum();
+            return count == 0 ? 0 : totalNanos.sum() / (count * 1_000_000.0);
+        }
+
+        public long getMaxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+    }
+}
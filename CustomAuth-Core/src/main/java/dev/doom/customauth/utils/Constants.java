@@ -14,7 +14,7 @@ public class Constants {
     public static final long DEFAULT_IP_BAN_DURATION = 3600; // 1 hour in seconds
 
     public static final String DEFAULT_LANGUAGE = "en";
-    public static final String DATABASE_VERSION = "1.0";
+    public static final int DATABASE_VERSION = 4; // latest storage migration
     
     private Constants() {
         // Prevent instantiation
@@ -3,10 +3,13 @@ package dev.doom.customauth.utils;
 
 import dev.doom.customauth.CustomAuth;
 import dev.doom.customauth.models.PlayerData;
+import dev.doom.customauth.storage.AccountTransfer;
 import org.bukkit.configuration.file.YamlConfiguration;
 import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public class DataConverter {
@@ -17,6 +20,7 @@ public class DataConverter {
     }
 
     public CompletableFuture<ConversionResult> convertFromAuthMe() {
+        // Not on the database executor: the conversion joins storage calls that need one of its threads
         return CompletableFuture.supplyAsync(() -> {
             try {
                 File authMeFolder = new File(plugin.getServer().getPluginManager()
@@ -45,6 +49,9 @@ public class DataConverter {
                     }
                 }
 
+                // Imported names may still be remembered as unregistered
+                plugin.getAccountLookupService().invalidateAll();
+
                 return new ConversionResult(true, 
                     String.format("Converted %d accounts, %d failed", converted, failed));
             } catch (Exception e) {
@@ -55,28 +62,45 @@ public class DataConverter {
 
     private int convertFromSQLite(Connection authMeConn) throws Exception {
         int converted = 0;
+        int batchSize = Math.max(1, plugin.getConfig().getInt("storage.bulk.batch_size", 10000));
+        List<String[]> batch = new ArrayList<>(batchSize);
         var stmt = authMeConn.prepareStatement(
             "SELECT username, password, email, ip, lastlogin FROM authme");
         var rs = stmt.executeQuery();
 
         while (rs.next()) {
+            // Hashes are imported as-is and upgraded to the target algorithm on next login
+            String hash = rs.getString("password");
+            if (plugin.getSecurityUtils().getPasswordHashers().identify(hash) == null) {
+                plugin.getLogger().warning("Skipping " + rs.getString("username") +
+                    ": unsupported AuthMe hash format");
+                continue;
+            }
+
             PlayerData data = new PlayerData(
                 rs.getString("username").toLowerCase(),
-                rs.getString("password")
+                hash
             );
             data.setEmail(rs.getString("email"));
             data.setLastIp(rs.getString("ip"));
             data.setLastLogin(rs.getLong("lastlogin"));
 
-            if (plugin.getDatabase() != null) {
-                if (plugin.getDatabase().registerPlayer(
-                    data.getUsername(), data.getHashedPassword(), data.getEmail()).join()) {
+            if (plugin.getDatabase() == null) {
+                if (plugin.getStorage().registerAccount(data).join()) {
                     converted++;
                 }
-            } else {
-                plugin.getFileStorage().queueSave(data);
-                converted++;
+                continue;
             }
+
+            // One bulk insert per batch instead of a round trip per account
+            batch.add(AccountTransfer.toRow(data));
+            if (batch.size() >= batchSize) {
+                converted += plugin.getDatabase().importAccounts(batch).join();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            converted += plugin.getDatabase().importAccounts(batch).join();
         }
 
         return converted;
@@ -65,7 +65,7 @@ public class EmailSender {
                 plugin.getLogger().severe("Failed to send verification email: " + e.getMessage());
                 return false;
             }
-        }, plugin.getAsyncExecutor());
+        }, plugin.getMailExecutor());
     }
 
     public CompletableFuture<Boolean> sendPasswordResetEmail(String username, String email, String token) {
@@ -97,7 +97,7 @@ public class EmailSender {
                 plugin.getLogger().severe("Failed to send password reset email: " + e.getMessage());
                 return false;
             }
-        }, plugin.getAsyncExecutor());
+        }, plugin.getMailExecutor());
     }
 
     public CompletableFuture<Boolean> sendPasswordChangeNotification(String username, String email) {
@@ -127,6 +127,6 @@ public class EmailSender {
                 plugin.getLogger().severe("Failed to send password change notification: " + e.getMessage());
                 return false;
             }
-        }, plugin.getAsyncExecutor());
+        }, plugin.getMailExecutor());
     }
 }
@@ -28,7 +28,7 @@ public class MetricsManager {
     private void setupCharts() {
         // Storage type
         metrics.addCustomChart(new SimplePie("storage_type", 
-            () -> plugin.getDatabase() != null ? "MySQL" : "File"));
+            () -> plugin.getDatabase() != null ? plugin.getDatabase().getDialect().getName() : "File"));
 
         // Authentication method
         metrics.addCustomChart(new SimplePie("auth_method", () -> {
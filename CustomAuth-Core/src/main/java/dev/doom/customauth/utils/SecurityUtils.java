@@ -2,17 +2,20 @@
 package dev.doom.customauth.utils;
 
 import dev.doom.customauth.CustomAuth;
+import dev.doom.customauth.security.PasswordHashers;
 import org.bukkit.entity.Player;
-import org.mindrot.jbcrypt.BCrypt;
 import java.security.SecureRandom;
 import java.util.Base64;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.net.InetAddress;
+import java.net.UnknownHostException;
 import com.google.common.util.concurrent.RateLimiter;
 
 public class SecurityUtils {
+    private static final Pattern IPV4_LITERAL = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
     private final CustomAuth plugin;
     private final Pattern passwordPattern;
     private final Pattern emailPattern;
@@ -20,6 +23,7 @@ public class SecurityUtils {
     private final Map<String, Integer> loginAttempts;
     private final Map<String, Long> ipBans;
     private final Map<String, RateLimiter> ipRateLimiters;
+    private final PasswordHashers passwordHashers;
 
     public SecurityUtils(CustomAuth plugin) {
         this.plugin = plugin;
@@ -34,6 +38,7 @@ public class SecurityUtils {
         this.loginAttempts = new ConcurrentHashMap<>();
         this.ipBans = new ConcurrentHashMap<>();
         this.ipRateLimiters = new ConcurrentHashMap<>();
+        this.passwordHashers = new PasswordHashers(plugin);
     }
 
     public boolean isPasswordValid(String password) {
@@ -65,15 +70,20 @@ public class SecurityUtils {
     }
 
     public String hashPassword(String password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt(12));
+        return passwordHashers.hash(password);
     }
 
     public boolean checkPassword(String password, String hashedPassword) {
-        try {
-            return BCrypt.checkpw(password, hashedPassword);
-        } catch (IllegalArgumentException e) {
-            return false;
-        }
+        return passwordHashers.verify(password, hashedPassword);
+    }
+
+    public boolean needsRehash(String hashedPassword) {
+        return plugin.getConfig().getBoolean("security.hashing.rehash_on_login", true) &&
+               passwordHashers.needsRehash(hashedPassword);
+    }
+
+    public PasswordHashers getPasswordHashers() {
+        return passwordHashers;
     }
 
     public boolean isValidEmail(String email) {
@@ -86,24 +96,31 @@ public class SecurityUtils {
         return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
     }
 
-    public boolean isIpAllowed(InetAddress address) {
+    /**
+     * @return Milliseconds until the IP ban expires, 0 if the IP is not banned
+     */
+    public long getIpBanRemaining(InetAddress address) {
         String ip = address.getHostAddress();
-        
-        // Check IP ban
         Long banExpiry = ipBans.get(ip);
-        if (banExpiry != null) {
-            if (System.currentTimeMillis() > banExpiry) {
-                ipBans.remove(ip);
-                loginAttempts.remove(ip);
-                return true;
-            }
-            return false;
+        if (banExpiry == null) {
+            return 0;
+        }
+
+        long remaining = banExpiry - System.currentTimeMillis();
+        if (remaining <= 0) {
+            ipBans.remove(ip);
+            loginAttempts.remove(ip);
+            return 0;
         }
+        return remaining;
+    }
 
-        // Check rate limit
-        RateLimiter rateLimiter = ipRateLimiters.computeIfAbsent(ip,
+    /**
+     * Takes a connection permit from the IP's rate limiter.
+     */
+    public boolean tryAcquireIpRate(InetAddress address) {
+        RateLimiter rateLimiter = ipRateLimiters.computeIfAbsent(address.getHostAddress(),
             k -> RateLimiter.create(plugin.getConfig().getDouble("security.ip_rate_limit", 5.0)));
-        
         return rateLimiter.tryAcquire();
     }
 
@@ -136,6 +153,37 @@ public class SecurityUtils {
         return generateToken();
     }
 
+    /**
+     * The 16-byte form stored in ip_addresses. IPv4 is mapped to
+     * ::ffff:a.b.c.d, so both families share one fixed-width column.
+     */
+    public static byte[] ipToBytes(InetAddress address) {
+        byte[] raw = address.getAddress();
+        if (raw.length == 16) {
+            return raw;
+        }
+        byte[] mapped = new byte[16];
+        mapped[10] = (byte) 0xff;
+        mapped[11] = (byte) 0xff;
+        System.arraycopy(raw, 0, mapped, 12, 4);
+        return mapped;
+    }
+
+    /**
+     * For IPs that were stored as text, e.g. players.last_ip. Anything that is
+     * not an IP literal gives null rather than a DNS lookup.
+     */
+    public static byte[] ipLiteralToBytes(String ip) {
+        if (ip == null || !(ip.indexOf(':') >= 0 || IPV4_LITERAL.matcher(ip).matches())) {
+            return null;
+        }
+        try {
+            return ipToBytes(InetAddress.getByName(ip));
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
     public String maskIp(String ip) {
         if (ip == null) return "unknown";
         String[] parts = ip.split("\\.");
@@ -2,7 +2,6 @@
 package dev.doom.customauth.utils;
 
 import dev.doom.customauth.CustomAuth;
-import org.bukkit.Bukkit;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -18,7 +17,7 @@ public class UpdateChecker {
     }
 
     public void checkForUpdates() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        plugin.getTaskScheduler().runAsync(() -> {
             try {
                 URL url = new URL("https://api.spigotmc.org/legacy/update.php?resource=" + resourceId);
                 try (InputStream inputStream = url.openStream();